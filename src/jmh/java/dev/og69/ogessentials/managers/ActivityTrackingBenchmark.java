@@ -0,0 +1,139 @@
+package dev.og69.ogessentials.managers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old and new PlayerMoveEvent activity paths over the same
+ * recorded movement packets.
+ *
+ * mapPerPacket is the old path: System.currentTimeMillis() and a boxed
+ * Long put into a ConcurrentHashMap for every packet. slotTable is the new
+ * one from AfkManager.handleMovement: a slot lookup, the block crossing and
+ * head rotation checks, and a primitive write of the cached tick clock only
+ * when one of them passes.
+ *
+ * Run with: mvn -Pjmh test-compile exec:exec
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivityTrackingBenchmark {
+
+    private static final int PLAYERS = 100;
+    private static final int PACKETS = 4096;
+    private static final float LOOK_THRESHOLD = 45f;
+
+    // Walking speed moves about 0.2 blocks per packet, turning a few degrees
+    private static final double STEP = 0.2;
+    private static final float TURN = 4f;
+
+    private final UUID[] playerIds = new UUID[PLAYERS];
+
+    // Packet i moves player packetPlayer[i] from (fromX/Y/Z) to (toX/Y/Z)
+    private final int[] packetPlayer = new int[PACKETS];
+    private final double[] fromX = new double[PACKETS];
+    private final double[] fromY = new double[PACKETS];
+    private final double[] fromZ = new double[PACKETS];
+    private final double[] toX = new double[PACKETS];
+    private final double[] toY = new double[PACKETS];
+    private final double[] toZ = new double[PACKETS];
+    private final float[] yaw = new float[PACKETS];
+    private final float[] pitch = new float[PACKETS];
+
+    private Map<UUID, Long> lastActivityMap;
+    private ActivityTable table;
+    private long clock;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        double[] x = new double[PLAYERS];
+        double[] z = new double[PLAYERS];
+        float[] playerYaw = new float[PLAYERS];
+        for (int player = 0; player < PLAYERS; player++) {
+            playerIds[player] = UUID.randomUUID();
+            x[player] = random.nextDouble() * 1000;
+            z[player] = random.nextDouble() * 1000;
+            playerYaw[player] = random.nextFloat() * 360f;
+        }
+
+        for (int i = 0; i < PACKETS; i++) {
+            int player = random.nextInt(PLAYERS);
+            packetPlayer[i] = player;
+            fromX[i] = x[player];
+            fromY[i] = 64;
+            fromZ[i] = z[player];
+            playerYaw[player] += (random.nextFloat() * 2 - 1) * TURN;
+            double radians = Math.toRadians(playerYaw[player]);
+            x[player] -= Math.sin(radians) * STEP;
+            z[player] += Math.cos(radians) * STEP;
+            toX[i] = x[player];
+            toY[i] = 64;
+            toZ[i] = z[player];
+            yaw[i] = playerYaw[player];
+            pitch[i] = (random.nextFloat() * 2 - 1) * 10f;
+        }
+
+        lastActivityMap = new ConcurrentHashMap<>();
+        table = new ActivityTable();
+        for (UUID playerId : playerIds) {
+            lastActivityMap.put(playerId, 0L);
+            table.assign(playerId);
+        }
+        clock = System.currentTimeMillis();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public void mapPerPacket() {
+        for (int i = 0; i < PACKETS; i++) {
+            lastActivityMap.put(playerIds[packetPlayer[i]], System.currentTimeMillis());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PACKETS)
+    public void slotTable() {
+        for (int i = 0; i < PACKETS; i++) {
+            int slot = table.slotOf(playerIds[packetPlayer[i]]);
+            if (slot < 0) {
+                continue;
+            }
+
+            boolean crossedBlock = floor(fromX[i]) != floor(toX[i])
+                || floor(fromY[i]) != floor(toY[i])
+                || floor(fromZ[i]) != floor(toZ[i]);
+            boolean turnedHead = table.turnedHead(slot, yaw[i], pitch[i], LOOK_THRESHOLD);
+            if (!crossedBlock && !turnedHead) {
+                continue;
+            }
+
+            table.setLook(slot, yaw[i], pitch[i]);
+            table.setLastActivity(slot, clock);
+        }
+    }
+
+    // Location.getBlockX()
+    private static int floor(double value) {
+        return (int) Math.floor(value);
+    }
+}
@@ -1,23 +1,37 @@
 package dev.og69.ogessentials;
 
+import dev.og69.ogessentials.config.Settings;
 import dev.og69.ogessentials.hooks.CoreProtectHook;
 import dev.og69.ogessentials.hooks.SkriptHook;
 import dev.og69.ogessentials.listeners.AfkListener;
 import dev.og69.ogessentials.listeners.KeepInventoryListener;
 import dev.og69.ogessentials.listeners.SleepListener;
+import dev.og69.ogessentials.managers.AfkCapacityManager;
 import dev.og69.ogessentials.managers.AfkManager;
+import dev.og69.ogessentials.managers.CommandBlocker;
+import dev.og69.ogessentials.managers.HeldToolCache;
 import dev.og69.ogessentials.managers.HomeManager;
 import dev.og69.ogessentials.managers.KeepInventoryManager;
+import dev.og69.ogessentials.managers.MiningStatsManager;
 import dev.og69.ogessentials.managers.NameTagManager;
 import dev.og69.ogessentials.managers.TpaManager;
 import dev.og69.ogessentials.managers.BackManager;
 import dev.og69.ogessentials.managers.PermissionManager;
+import dev.og69.ogessentials.managers.PickaxePermissionCache;
+import dev.og69.ogessentials.managers.ProtectionDecisionCache;
+import dev.og69.ogessentials.managers.SpamGuard;
+import dev.og69.ogessentials.managers.VeinMineManager;
 import dev.og69.ogessentials.storage.DatabaseManager;
+import dev.og69.ogessentials.tasks.ActivityClockTask;
 import dev.og69.ogessentials.tasks.AfkCheckTask;
+import dev.og69.ogessentials.tasks.MiningStatsFlushTask;
 import dev.og69.ogessentials.tasks.TpaExpiryTask;
+import dev.og69.ogessentials.text.ComponentCache;
+import dev.og69.ogessentials.text.Messages;
 import dev.og69.ogessentials.update.UpdateChecker;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.server.PluginEnableEvent;
@@ -32,7 +46,7 @@ import java.lang.reflect.Method;
  * - TPA system
  * - Homes system
  * - AFK detection and half-sleep
- * - 3x3 Pickaxe
+ * - 3x3 Pickaxe and Vein Miner
  * - Command blocking
  * - Keep Inventory
  * - Custom enchants
@@ -53,11 +67,22 @@ public class OGEssentials extends JavaPlugin implements Listener {
     private int updateCheckTaskId = -1;
     private boolean isInitialStartup = true;
     
+    // Typed config snapshot, replaced as a whole on reload
+    private volatile Settings settings;
+    
+    // Parsed message components
+    private ComponentCache componentCache;
+    
+    // Localized message templates (messages.yml)
+    private Messages messages;
+    
     // AFK and Half-Sleep system
     private NameTagManager nameTagManager;
     private AfkManager afkManager;
+    private AfkCapacityManager afkCapacityManager;
     private SleepListener sleepListener;
     private int afkCheckTaskId = -1;
+    private int activityClockTaskId = -1;
     
     // Keep Inventory system
     private KeepInventoryManager keepInventoryManager;
@@ -76,6 +101,29 @@ public class OGEssentials extends JavaPlugin implements Listener {
 
     // Permission system
     private PermissionManager permissionManager;
+
+    // Compiled 3x3 pickaxe break permissions
+    private PickaxePermissionCache pickaxePermissionCache;
+
+    // Vein Miner system
+    private VeinMineManager veinMineManager;
+
+    // Held special tool cache for BlockBreakListener
+    private HeldToolCache heldToolCache;
+
+    // Protection checks for area mining
+    private ProtectionDecisionCache protectionDecisionCache;
+
+    // Mining telemetry
+    private MiningStatsManager miningStatsManager;
+    private int miningStatsFlushTaskId = -1;
+    private Settings.MiningTelemetry appliedMiningStats;
+
+    // Compiled command-blocker rules
+    private CommandBlocker commandBlocker;
+
+    // Chat and command flood protection
+    private SpamGuard spamGuard;
     
     @Override
     public void onEnable() {
@@ -84,6 +132,17 @@ public class OGEssentials extends JavaPlugin implements Listener {
         // Save default config if it doesn't exist
         saveDefaultConfig();
         
+        // The first getConfig() loads config.yml through reloadConfig(),
+        // which also builds the settings snapshot
+        getConfig();
+        if (settings == null) {
+            settings = Settings.load(getConfig(), getLogger());
+        }
+        
+        // Message components are needed by every system below
+        componentCache = new ComponentCache(this);
+        messages = new Messages(this);
+        
         // Register plugin enable listener to catch when PlaceholderAPI loads
         getServer().getPluginManager().registerEvents(this, this);
         
@@ -106,14 +165,29 @@ public class OGEssentials extends JavaPlugin implements Listener {
         // Initialize Database and Homes system
         initializeHomesSystem();
         
+        // Initialize mining telemetry (requires database)
+        initializeMiningStats();
+        
         // Initialize TPA system
         initializeTpaSystem();
 
         // Initialize Back system
         backManager = new BackManager();
 
+        // Initialize Vein Miner system
+        veinMineManager = new VeinMineManager(this);
+        heldToolCache = new HeldToolCache();
+        protectionDecisionCache = new ProtectionDecisionCache(this);
+
         // Initialize Permission system
+        pickaxePermissionCache = new PickaxePermissionCache();
         permissionManager = new PermissionManager(this);
+
+        // Initialize Command Blocker
+        commandBlocker = new CommandBlocker(this);
+
+        // Initialize anti-spam
+        spamGuard = new SpamGuard(this);
         // Register commands
         registerCommands();
         
@@ -154,9 +228,32 @@ public class OGEssentials extends JavaPlugin implements Listener {
             backManager.cleanup();
         }
 
+        if (veinMineManager != null) {
+            veinMineManager.cleanup();
+        }
+
+        if (heldToolCache != null) {
+            heldToolCache.cleanup();
+        }
+
+        if (protectionDecisionCache != null) {
+            protectionDecisionCache.cleanup();
+        }
+
         if (permissionManager != null) {
             permissionManager.cleanup();
         }
+
+        if (spamGuard != null) {
+            spamGuard.cleanup();
+        }
+
+        if (pickaxePermissionCache != null) {
+            pickaxePermissionCache.cleanup();
+        }
+        
+        // Flush mining telemetry before the database closes
+        cleanupMiningStats();
         
         // Clean up Homes system and database
         cleanupHomesSystem();
@@ -337,6 +434,14 @@ public class OGEssentials extends JavaPlugin implements Listener {
             give3x3PickCommand.setTabCompleter(executor);
         }
         
+        // Register Vein Miner command
+        org.bukkit.command.PluginCommand giveVeinMinerCommand = getCommand("giveveinminer");
+        if (giveVeinMinerCommand != null) {
+            dev.og69.ogessentials.commands.GiveVeinMinerCommand executor = new dev.og69.ogessentials.commands.GiveVeinMinerCommand();
+            giveVeinMinerCommand.setExecutor(executor);
+            giveVeinMinerCommand.setTabCompleter(executor);
+        }
+        
         // Register ogessentials command (with update subcommand)
         org.bukkit.command.PluginCommand ogessentialsCommand = getCommand("ogessentials");
         if (ogessentialsCommand != null) {
@@ -442,6 +547,18 @@ public class OGEssentials extends JavaPlugin implements Listener {
             new dev.og69.ogessentials.listeners.BlockBreakListener(this),
             this
         );
+
+        // Register protection check listener for area mining
+        getServer().getPluginManager().registerEvents(
+            new dev.og69.ogessentials.listeners.ProtectionCheckListener(protectionDecisionCache),
+            this
+        );
+
+        // Register held tool listener to keep the special tool cache in sync
+        getServer().getPluginManager().registerEvents(
+            new dev.og69.ogessentials.listeners.HeldToolListener(heldToolCache),
+            this
+        );
         
         // Register AFK listener
         getServer().getPluginManager().registerEvents(
@@ -449,6 +566,18 @@ public class OGEssentials extends JavaPlugin implements Listener {
             this
         );
         
+        // Register name tag flush listener to apply coalesced tag updates each tick
+        getServer().getPluginManager().registerEvents(
+            new dev.og69.ogessentials.listeners.NameTagFlushListener(nameTagManager),
+            this
+        );
+        
+        // Register AFK capacity listener to free slots on a full server
+        getServer().getPluginManager().registerEvents(
+            new dev.og69.ogessentials.listeners.AfkCapacityListener(afkCapacityManager),
+            this
+        );
+        
         // Register Sleep listener for half-sleep system
         sleepListener = new SleepListener(this, afkManager);
         getServer().getPluginManager().registerEvents(sleepListener, this);
@@ -459,9 +588,21 @@ public class OGEssentials extends JavaPlugin implements Listener {
             this
         );
         
+        // Register anti-spam listener (drops spam before other chat/command listeners)
+        getServer().getPluginManager().registerEvents(
+            new dev.og69.ogessentials.listeners.SpamGuardListener(this, spamGuard),
+            this
+        );
+        
         // Register Chat listener
         getServer().getPluginManager().registerEvents(
-            new dev.og69.ogessentials.listeners.ChatListener(),
+            new dev.og69.ogessentials.listeners.ChatListener(this, permissionManager),
+            this
+        );
+
+        // Register Mention listener
+        getServer().getPluginManager().registerEvents(
+            new dev.og69.ogessentials.listeners.MentionListener(this),
             this
         );
 
@@ -473,7 +614,7 @@ public class OGEssentials extends JavaPlugin implements Listener {
 
         // Register Disabled Commands listener
         getServer().getPluginManager().registerEvents(
-            new dev.og69.ogessentials.listeners.DisabledCommandsListener(this),
+            new dev.og69.ogessentials.listeners.DisabledCommandsListener(this, commandBlocker),
             this
         );
 
@@ -489,15 +630,29 @@ public class OGEssentials extends JavaPlugin implements Listener {
      */
     private void initializeAfkSystem() {
         // Initialize managers
-        nameTagManager = new NameTagManager();
+        nameTagManager = new NameTagManager(settings.nameTagRejoinGraceSeconds() * 1000L);
         afkManager = new AfkManager(this, nameTagManager);
+        afkCapacityManager = new AfkCapacityManager(this);
+        
+        // Track players already online (plugin reload)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            afkManager.initializePlayer(player);
+        }
+        
+        // Start activity clock task (runs every tick)
+        activityClockTaskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(
+            this,
+            new ActivityClockTask(afkManager),
+            1L,
+            1L
+        );
         
-        // Start AFK check task (runs every 60 seconds = 1200 ticks)
+        // Start AFK check task (runs every second = 20 ticks)
         afkCheckTaskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(
             this,
             new AfkCheckTask(afkManager, this),
-            1200L, // Initial delay: 60 seconds
-            1200L  // Repeat interval: 60 seconds
+            20L, // Initial delay: 1 second
+            20L  // Repeat interval: 1 second
         );
         
         getLogger().info("AFK and Half-Sleep system initialized!");
@@ -513,10 +668,19 @@ public class OGEssentials extends JavaPlugin implements Listener {
             afkCheckTaskId = -1;
         }
         
+        // Cancel activity clock task
+        if (activityClockTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(activityClockTaskId);
+            activityClockTaskId = -1;
+        }
+        
         // Clean up managers
         if (afkManager != null) {
             afkManager.cleanup();
         }
+        if (afkCapacityManager != null) {
+            afkCapacityManager.cleanup();
+        }
         if (nameTagManager != null) {
             nameTagManager.cleanup();
         }
@@ -583,6 +747,76 @@ public class OGEssentials extends JavaPlugin implements Listener {
         }
     }
     
+    /**
+     * Initialize mining telemetry for the 3x3 pickaxe and Vein Miner.
+     */
+    private void initializeMiningStats() {
+        appliedMiningStats = settings.miningStats();
+        if (!appliedMiningStats.enabled()) {
+            getLogger().info("Mining stats disabled in config.");
+            return;
+        }
+        
+        if (databaseManager == null || !databaseManager.isConnected()) {
+            getLogger().warning("Database not available - mining stats will not be recorded.");
+            return;
+        }
+        
+        miningStatsManager = new MiningStatsManager(this, databaseManager);
+        scheduleMiningStatsFlush();
+        
+        getLogger().info("Mining stats initialized!");
+    }
+    
+    /**
+     * Start the mining stats flush task (default every 5 minutes).
+     */
+    private void scheduleMiningStatsFlush() {
+        long intervalTicks = appliedMiningStats.flushIntervalSeconds() * 20L;
+        miningStatsFlushTaskId = Bukkit.getScheduler().runTaskTimerAsynchronously(
+            this,
+            new MiningStatsFlushTask(miningStatsManager),
+            intervalTicks,
+            intervalTicks
+        ).getTaskId();
+    }
+    
+    /**
+     * Apply changed mining-stats settings after a config reload.
+     */
+    private void reloadMiningStats() {
+        // Not initialized yet (the first config load happens before onEnable sets it up)
+        if (appliedMiningStats == null || appliedMiningStats.equals(settings.miningStats())) {
+            return;
+        }
+        
+        if (miningStatsManager != null && settings.miningStats().enabled()) {
+            // Only the flush interval changed: keep the manager and its pending stats
+            Bukkit.getScheduler().cancelTask(miningStatsFlushTaskId);
+            appliedMiningStats = settings.miningStats();
+            scheduleMiningStatsFlush();
+            return;
+        }
+        
+        cleanupMiningStats();
+        miningStatsManager = null;
+        initializeMiningStats();
+    }
+    
+    /**
+     * Flush and clean up mining telemetry.
+     */
+    private void cleanupMiningStats() {
+        if (miningStatsFlushTaskId != -1) {
+            Bukkit.getScheduler().cancelTask(miningStatsFlushTaskId);
+            miningStatsFlushTaskId = -1;
+        }
+        
+        if (miningStatsManager != null) {
+            miningStatsManager.cleanup();
+        }
+    }
+    
     /**
      * Initialize the TPA system.
      */
@@ -696,6 +930,34 @@ public class OGEssentials extends JavaPlugin implements Listener {
         return updateChecker;
     }
     
+    /**
+     * Get the current settings snapshot. Callers should read it once per
+     * operation and use that snapshot throughout.
+     * 
+     * @return The settings
+     */
+    public Settings getSettings() {
+        return settings;
+    }
+    
+    /**
+     * Get the message component cache.
+     * 
+     * @return The component cache
+     */
+    public ComponentCache getComponentCache() {
+        return componentCache;
+    }
+    
+    /**
+     * Get the localized message templates.
+     * 
+     * @return The messages
+     */
+    public Messages getMessages() {
+        return messages;
+    }
+    
     /**
      * Get the name tag manager instance.
      * 
@@ -714,6 +976,33 @@ public class OGEssentials extends JavaPlugin implements Listener {
         return afkManager;
     }
     
+    /**
+     * Get the AFK capacity manager instance.
+     * 
+     * @return The AFK capacity manager
+     */
+    public AfkCapacityManager getAfkCapacityManager() {
+        return afkCapacityManager;
+    }
+    
+    /**
+     * Get the command blocker instance.
+     * 
+     * @return The command blocker
+     */
+    public CommandBlocker getCommandBlocker() {
+        return commandBlocker;
+    }
+    
+    /**
+     * Get the anti-spam guard instance.
+     * 
+     * @return The spam guard
+     */
+    public SpamGuard getSpamGuard() {
+        return spamGuard;
+    }
+    
     /**
      * Get the Keep Inventory manager instance.
      * 
@@ -767,6 +1056,51 @@ public class OGEssentials extends JavaPlugin implements Listener {
     public PermissionManager getPermissionManager() {
         return permissionManager;
     }
+
+    /**
+     * Get the Vein Miner manager instance.
+     *
+     * @return The Vein Miner manager
+     */
+    public VeinMineManager getVeinMineManager() {
+        return veinMineManager;
+    }
+
+    /**
+     * Get the mining stats manager instance.
+     *
+     * @return The mining stats manager, or null if disabled
+     */
+    public MiningStatsManager getMiningStatsManager() {
+        return miningStatsManager;
+    }
+
+    /**
+     * Get the area mining protection decision cache.
+     *
+     * @return The protection decision cache
+     */
+    public ProtectionDecisionCache getProtectionDecisionCache() {
+        return protectionDecisionCache;
+    }
+
+    /**
+     * Get the held special tool cache.
+     *
+     * @return The held tool cache
+     */
+    public HeldToolCache getHeldToolCache() {
+        return heldToolCache;
+    }
+
+    /**
+     * Get the compiled 3x3 pickaxe permission cache.
+     *
+     * @return The pickaxe permission cache
+     */
+    public PickaxePermissionCache getPickaxePermissionCache() {
+        return pickaxePermissionCache;
+    }
     
     /**
      * Reload the plugin configuration.
@@ -775,6 +1109,46 @@ public class OGEssentials extends JavaPlugin implements Listener {
     public void reloadConfig() {
         super.reloadConfig();
         
+        // Publish the new settings in one step
+        settings = Settings.load(getConfig(), getLogger());
+        
+        // Drop components parsed from the old config
+        if (componentCache != null) {
+            componentCache.clear();
+        }
+        if (messages != null) {
+            messages.reload();
+        }
+        
+        // Pick up new AFK settings
+        if (afkManager != null) {
+            afkManager.reload();
+        }
+        if (afkCapacityManager != null) {
+            afkCapacityManager.reload();
+        }
+        
+        // Pick up new anti-spam limits
+        if (spamGuard != null) {
+            spamGuard.reload();
+        }
+        
+        // Recompile command-blocker rules
+        if (commandBlocker != null) {
+            commandBlocker.reload();
+        }
+        
+        // Pick up new area mining protection settings
+        if (protectionDecisionCache != null) {
+            protectionDecisionCache.reload();
+        }
+        
+        // Pick up new name tag and mining stats settings
+        if (nameTagManager != null) {
+            nameTagManager.setRejoinGraceMillis(settings.nameTagRejoinGraceSeconds() * 1000L);
+        }
+        reloadMiningStats();
+        
         // Reinitialize hooks if config changed
         disableHooks();
         placeholderAPIHookLoaded = false;
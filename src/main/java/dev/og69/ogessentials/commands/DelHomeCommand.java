@@ -87,7 +87,6 @@ public class DelHomeCommand implements CommandExecutor, TabCompleter {
     }
     
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
 }
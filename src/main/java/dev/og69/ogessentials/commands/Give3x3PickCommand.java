@@ -18,7 +18,9 @@ import org.bukkit.plugin.Plugin;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Command to give a 3x3 Pickaxe to a player.
@@ -30,9 +32,27 @@ public class Give3x3PickCommand implements CommandExecutor, TabCompleter {
     
     private static final String PICKAXE_NAME = "§b3x3 Pickaxe";
     private static final String PICKAXE_LORE = "§7Mines in a 3x3 area";
+    private static final String VEIN_MINER_NAME = "§6Vein Miner";
+    private static final String VEIN_MINER_LORE = "§7Mines connected ores and logs";
     
-    // NamespacedKey for PersistentDataContainer (initialized via initializeNamespacedKey)
+    // NamespacedKeys for PersistentDataContainer (initialized via initializeNamespacedKey)
     private static NamespacedKey PICKAXE_ID_KEY = null;
+    private static NamespacedKey VEIN_MINER_ID_KEY = null;
+    
+    // Tool materials that can carry the vein miner tag
+    private static final Set<Material> VEIN_MINER_TYPES = EnumSet.noneOf(Material.class);
+    
+    static {
+        for (Material material : Material.values()) {
+            if (material.isLegacy()) {
+                continue;
+            }
+            String name = material.name();
+            if (name.endsWith("_PICKAXE") || name.endsWith("_AXE")) {
+                VEIN_MINER_TYPES.add(material);
+            }
+        }
+    }
     
     /**
      * Initialize the NamespacedKey for PersistentDataContainer.
@@ -44,6 +64,9 @@ public class Give3x3PickCommand implements CommandExecutor, TabCompleter {
         if (PICKAXE_ID_KEY == null) {
             PICKAXE_ID_KEY = new NamespacedKey(plugin, "3x3_pickaxe");
         }
+        if (VEIN_MINER_ID_KEY == null) {
+            VEIN_MINER_ID_KEY = new NamespacedKey(plugin, "vein_miner");
+        }
     }
     
     @Override
@@ -139,6 +162,9 @@ public class Give3x3PickCommand implements CommandExecutor, TabCompleter {
      * Uses PersistentDataContainer for secure identification to prevent renaming abuse.
      * Falls back to display name check for backwards compatibility with old pickaxes.
      * 
+     * The Material is checked before anything else, and the tag is read through
+     * Paper's read-only PersistentDataContainer view so the item meta is not cloned.
+     * 
      * @param item The item to check
      * @return true if the item is a 3x3 Pickaxe, false otherwise
      */
@@ -153,29 +179,72 @@ public class Give3x3PickCommand implements CommandExecutor, TabCompleter {
             return false;
         }
         
-        ItemMeta meta = item.getItemMeta();
-        if (meta == null) {
-            return false;
-        }
-        
         // First, check PersistentDataContainer tag (secure method, prevents renaming abuse)
         if (PICKAXE_ID_KEY != null) {
-            PersistentDataContainer pdc = meta.getPersistentDataContainer();
-            if (pdc.has(PICKAXE_ID_KEY, PersistentDataType.BOOLEAN)) {
-                Boolean value = pdc.get(PICKAXE_ID_KEY, PersistentDataType.BOOLEAN);
-                if (value != null && value) {
-                    return true; // Has valid PDC tag
-                }
+            Boolean value = item.getPersistentDataContainer().get(PICKAXE_ID_KEY, PersistentDataType.BOOLEAN);
+            if (value != null && value) {
+                return true; // Has valid PDC tag
             }
         }
         
         // Fallback to display name check for backwards compatibility with old pickaxes
         // This allows existing pickaxes without PDC tags to still work
-        if (meta.hasDisplayName()) {
+        if (!item.hasItemMeta()) {
+            return false;
+        }
+        ItemMeta meta = item.getItemMeta();
+        if (meta != null && meta.hasDisplayName()) {
             String displayName = meta.getDisplayName();
             return displayName.equals(PICKAXE_NAME);
         }
         
         return false;
     }
+    
+    /**
+     * Create a Vein Miner tool.
+     * 
+     * @param type The tool material (a pickaxe for ores, an axe for logs)
+     * @return The Vein Miner ItemStack
+     */
+    public static ItemStack createVeinMiner(Material type) {
+        ItemStack tool = new ItemStack(type);
+        ItemMeta meta = tool.getItemMeta();
+        
+        if (meta != null) {
+            meta.setDisplayName(VEIN_MINER_NAME);
+            meta.setLore(Arrays.asList(VEIN_MINER_LORE));
+            
+            // Vein Miners are identified only by their PersistentDataContainer tag
+            if (VEIN_MINER_ID_KEY != null) {
+                PersistentDataContainer pdc = meta.getPersistentDataContainer();
+                pdc.set(VEIN_MINER_ID_KEY, PersistentDataType.BOOLEAN, true);
+            }
+            
+            tool.setItemMeta(meta);
+        }
+        
+        return tool;
+    }
+    
+    /**
+     * Check if an item is a Vein Miner.
+     * Any pickaxe or axe carrying the vein miner PersistentDataContainer tag qualifies.
+     * 
+     * @param item The item to check
+     * @return true if the item is a Vein Miner, false otherwise
+     */
+    public static boolean isVeinMiner(ItemStack item) {
+        if (item == null || VEIN_MINER_ID_KEY == null) {
+            return false;
+        }
+        
+        if (!VEIN_MINER_TYPES.contains(item.getType())) {
+            return false;
+        }
+        
+        // Read through the non-copying PersistentDataContainer view
+        Boolean value = item.getPersistentDataContainer().get(VEIN_MINER_ID_KEY, PersistentDataType.BOOLEAN);
+        return value != null && value;
+    }
 }
@@ -0,0 +1,86 @@
+package dev.og69.ogessentials.commands;
+
+import org.bukkit.Material;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command to give a Vein Miner tool to a player.
+ *
+ * Usage: /giveveinminer [player] [pickaxe|axe]
+ * Permission: ogessentials.veinminer.give
+ */
+public class GiveVeinMinerCommand implements CommandExecutor, TabCompleter {
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        Player target;
+
+        if (args.length > 0) {
+            target = sender.getServer().getPlayer(args[0]);
+            if (target == null) {
+                sender.sendMessage("§cPlayer '" + args[0] + "' is not online.");
+                return true;
+            }
+        } else {
+            if (!(sender instanceof Player)) {
+                sender.sendMessage("§cYou must specify a player when using this command from console.");
+                return true;
+            }
+            target = (Player) sender;
+        }
+
+        // Default to a pickaxe (ores); "axe" gives a log-felling tool
+        Material type = Material.DIAMOND_PICKAXE;
+        if (args.length > 1) {
+            if (args[1].equalsIgnoreCase("axe")) {
+                type = Material.DIAMOND_AXE;
+            } else if (!args[1].equalsIgnoreCase("pickaxe")) {
+                sender.sendMessage("§cUnknown tool type '" + args[1] + "'. Use pickaxe or axe.");
+                return true;
+            }
+        }
+
+        ItemStack tool = Give3x3PickCommand.createVeinMiner(type);
+        target.getInventory().addItem(tool);
+
+        if (target.equals(sender)) {
+            target.sendMessage("§aYou have been given a §6Vein Miner§a!");
+        } else {
+            sender.sendMessage("§aYou have given a §6Vein Miner §ato " + target.getName() + ".");
+            target.sendMessage("§aYou have received a §6Vein Miner§a!");
+        }
+
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> completions = new ArrayList<>();
+
+        if (args.length == 1) {
+            String partial = args[0].toLowerCase();
+            for (Player player : sender.getServer().getOnlinePlayers()) {
+                if (player.getName().toLowerCase().startsWith(partial)) {
+                    completions.add(player.getName());
+                }
+            }
+        } else if (args.length == 2) {
+            String partial = args[1].toLowerCase();
+            for (String type : new String[]{"pickaxe", "axe"}) {
+                if (type.startsWith(partial)) {
+                    completions.add(type);
+                }
+            }
+        }
+
+        return completions;
+    }
+}
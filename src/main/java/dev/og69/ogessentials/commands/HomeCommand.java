@@ -156,7 +156,6 @@ public class HomeCommand implements CommandExecutor, TabCompleter {
     }
     
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "§7[§bOGSMP§7] §r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
 }
@@ -55,7 +55,6 @@ public class HomesCommand implements CommandExecutor {
     }
     
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
 }
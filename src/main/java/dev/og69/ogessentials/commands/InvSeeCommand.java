@@ -186,7 +186,6 @@ public class InvSeeCommand implements CommandExecutor {
     }
 
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
 }
@@ -47,8 +47,7 @@ public class KeepInventoryCommand implements CommandExecutor {
         // Check global gamerule
         Boolean keepInventoryRule = player.getWorld().getGameRuleValue(GameRule.KEEP_INVENTORY);
         if (keepInventoryRule != null && keepInventoryRule) {
-            String prefix = ChatColor.translateAlternateColorCodes('&',
-                 plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+            String prefix = plugin.getComponentCache().legacyPrefix();
             player.sendMessage(prefix + ChatColor.RED + "Global KeepInventory gamerule is enabled. You don't need to enable it individually.");
             return true;
         }
@@ -57,8 +56,7 @@ public class KeepInventoryCommand implements CommandExecutor {
         boolean nowEnabled = manager.toggle(player.getUniqueId());
         
         // Send message
-        String prefix = ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        String prefix = plugin.getComponentCache().legacyPrefix();
         
         if (nowEnabled) {
             player.sendMessage(prefix + ChatColor.GREEN + "Keep Inventory mode enabled.");
@@ -1,11 +1,22 @@
 package dev.og69.ogessentials.commands;
 
 import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.managers.AfkCapacityManager;
+import dev.og69.ogessentials.managers.AfkManager;
+import dev.og69.ogessentials.managers.CommandBlocker;
+import dev.og69.ogessentials.managers.MiningStatsManager;
+import dev.og69.ogessentials.managers.MovementPatternDetector;
+import dev.og69.ogessentials.managers.NameTagManager;
+import dev.og69.ogessentials.managers.ProtectionDecisionCache;
+import dev.og69.ogessentials.managers.SpamGuard;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -27,6 +38,7 @@ public class OGEssentialsCommand implements CommandExecutor, TabCompleter {
         if (args.length == 0) {
             sender.sendMessage("§7[§bOG-Essentials§7] Use §e/ogessentials update §7to check for updates.");
             sender.sendMessage("§7[§bOG-Essentials§7] Use §e/ogessentials reload §7to reload config.");
+            sender.sendMessage("§7[§bOG-Essentials§7] Use §e/ogessentials stats §7to view statistics.");
             return true;
         }
         
@@ -39,9 +51,13 @@ public class OGEssentialsCommand implements CommandExecutor, TabCompleter {
                 return updateCheckCommand.onCommand(sender, command, label, updateArgs);
             case "reload":
                 return handleReload(sender);
+            case "stats":
+                return handleStats(sender, Arrays.copyOfRange(args, 1, args.length));
+            case "afkdebug":
+                return handleAfkDebug(sender, args);
             default:
                 sender.sendMessage("§cUnknown subcommand: " + subcommand);
-                sender.sendMessage("§7Available subcommands: §eupdate§7, §ereload");
+                sender.sendMessage("§7Available subcommands: §eupdate§7, §ereload§7, §estats§7, §eafkdebug");
                 return true;
         }
     }
@@ -67,6 +83,212 @@ public class OGEssentialsCommand implements CommandExecutor, TabCompleter {
         return true;
     }
     
+    /**
+     * Handle the stats subcommand.
+     */
+    private boolean handleStats(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("ogessentials.stats")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to use this command.");
+            return true;
+        }
+
+        OGEssentials plugin = OGEssentials.getInstance();
+        if (plugin == null) {
+            sender.sendMessage(ChatColor.RED + "Plugin not available.");
+            return true;
+        }
+
+        if (args.length > 0 && args[0].equalsIgnoreCase("mining")) {
+            return handleMiningStats(sender, plugin, args);
+        }
+
+        sender.sendMessage("§7[§bOG-Essentials§7] §eStatistics");
+        sendProtectionStats(sender, plugin);
+        sendAfkStats(sender, plugin);
+        sendNameTagStats(sender, plugin);
+        sendCommandBlockerStats(sender, plugin);
+        sendSpamStats(sender, plugin);
+        sender.sendMessage("§7Use §e/ogessentials stats mining [player] §7for mining stats.");
+        return true;
+    }
+
+    /**
+     * Handle /ogessentials stats mining [player].
+     */
+    private boolean handleMiningStats(CommandSender sender, OGEssentials plugin, String[] args) {
+        MiningStatsManager miningStatsManager = plugin.getMiningStatsManager();
+        if (miningStatsManager == null) {
+            sender.sendMessage(ChatColor.RED + "Mining stats are disabled.");
+            return true;
+        }
+
+        // Resolve whose stats to show (self by default)
+        OfflinePlayer target = null;
+        if (args.length > 1) {
+            target = Bukkit.getOfflinePlayer(args[1]);
+        } else if (sender instanceof Player player) {
+            target = player;
+        }
+
+        sender.sendMessage("§7[§bOG-Essentials§7] §eMining Stats");
+
+        if (target == null) {
+            sendMiningLeaderboard(sender, miningStatsManager);
+            return true;
+        }
+
+        // The player's row is read off the main thread
+        String name = args.length > 1 ? args[1] : sender.getName();
+        miningStatsManager.loadStats(target.getUniqueId(), stats -> {
+            if (stats == null) {
+                sender.sendMessage("§7No mining recorded for §f" + name + "§7.");
+            } else {
+                double avgMicros = stats.swings() == 0 ? 0.0 : stats.handlerNanos() / 1000.0 / stats.swings();
+                sender.sendMessage("§f" + name + "§7: blocks §f" + stats.blocks() + " §7drops §f" + stats.drops() +
+                    " §7swings §f" + stats.swings());
+                sender.sendMessage(String.format("§7  Handler time: §f%.1f ms §7total, §f%.1f µs §7per swing",
+                    stats.handlerNanos() / 1_000_000.0, avgMicros));
+            }
+            sendMiningLeaderboard(sender, miningStatsManager);
+        });
+        return true;
+    }
+
+    private void sendMiningLeaderboard(CommandSender sender, MiningStatsManager miningStatsManager) {
+        List<MiningStatsManager.LeaderboardEntry> leaderboard = miningStatsManager.getLeaderboard();
+        if (leaderboard.isEmpty()) {
+            sender.sendMessage("§7Leaderboard is empty.");
+            return;
+        }
+
+        sender.sendMessage("§eTop miners:");
+        int rank = 1;
+        for (MiningStatsManager.LeaderboardEntry entry : leaderboard) {
+            sender.sendMessage("§7" + rank + ". §f" + entry.name() + " §7- §b" + entry.blocks() + " §7blocks");
+            rank++;
+        }
+    }
+
+    /**
+     * Handle /ogessentials afkdebug <player>.
+     */
+    private boolean handleAfkDebug(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("ogessentials.afk.debug")) {
+            sender.sendMessage(ChatColor.RED + "You don't have permission to use this command.");
+            return true;
+        }
+
+        OGEssentials plugin = OGEssentials.getInstance();
+        AfkManager afkManager = plugin != null ? plugin.getAfkManager() : null;
+        if (afkManager == null) {
+            sender.sendMessage(ChatColor.RED + "Plugin not available.");
+            return true;
+        }
+
+        if (args.length < 2) {
+            sender.sendMessage(ChatColor.RED + "Usage: /ogessentials afkdebug <player>");
+            return true;
+        }
+
+        Player target = Bukkit.getPlayer(args[1]);
+        if (target == null) {
+            sender.sendMessage(ChatColor.RED + "Player not found: " + args[1]);
+            return true;
+        }
+
+        MovementPatternDetector.PatternStats stats = afkManager.getMovementStats(target.getUniqueId());
+        if (stats == null) {
+            sender.sendMessage(ChatColor.RED + target.getName() + " is not being tracked.");
+            return true;
+        }
+
+        long idleSeconds = (System.currentTimeMillis() - afkManager.getLastActivity(target.getUniqueId())) / 1000L;
+        String verdict = stats.mechanical() ? "§cmechanical" : "§ahuman";
+        sender.sendMessage("§7[§bOG-Essentials§7] §eAFK Debug: §f" + target.getName());
+        sender.sendMessage("§7AFK: §f" + afkManager.isAfk(target.getUniqueId()) + " §7idle: §f" + idleSeconds + "s");
+        sender.sendMessage("§7Samples: §f" + stats.samples() + "§7/§f" + MovementPatternDetector.WINDOW +
+            " §7movement: " + verdict);
+        sender.sendMessage(String.format("§7  Entropy: §f%.2f bits §7periodicity: §f%.0f%% §7(period §f%d§7)",
+            stats.entropy(), stats.periodicity() * 100.0, stats.period()));
+        sender.sendMessage(String.format("§7  Look changes: §f%.0f%% §7revisited blocks: §f%.0f%%",
+            stats.lookChangeRatio() * 100.0, stats.revisitRatio() * 100.0));
+        return true;
+    }
+
+    /**
+     * Show AFK pressure: how many online players are AFK and how close the
+     * server is to the capacity kick threshold.
+     */
+    private void sendAfkStats(CommandSender sender, OGEssentials plugin) {
+        AfkManager afkManager = plugin.getAfkManager();
+        AfkCapacityManager capacityManager = plugin.getAfkCapacityManager();
+        if (afkManager == null || capacityManager == null) {
+            return;
+        }
+
+        int online = Bukkit.getOnlinePlayers().size();
+        int afk = afkManager.getAfkCount();
+        double pressure = online == 0 ? 0.0 : afk * 100.0 / online;
+        String state = capacityManager.isEnabled() ? "§aenabled" : "§cdisabled";
+        sender.sendMessage(String.format("§7AFK players: §f%d§7/§f%d §7online (§f%.0f%%§7)", afk, online, pressure));
+        sender.sendMessage(String.format("§7  Capacity kicks: %s §7threshold: §f%d§7/§f%d §7kicked: §f%d",
+            state, capacityManager.getThreshold(), Bukkit.getMaxPlayers(), capacityManager.getKicked()));
+    }
+
+    /**
+     * Show how many name tag updates were sent versus coalesced away.
+     */
+    private void sendNameTagStats(CommandSender sender, OGEssentials plugin) {
+        NameTagManager nameTagManager = plugin.getNameTagManager();
+        if (nameTagManager == null) {
+            return;
+        }
+
+        sender.sendMessage("§7Name tag updates applied: §f" + nameTagManager.getUpdatesApplied() +
+            " §7suppressed: §f" + nameTagManager.getUpdatesSuppressed());
+    }
+
+    /**
+     * Show how many messages anti-spam dropped.
+     */
+    private void sendSpamStats(CommandSender sender, OGEssentials plugin) {
+        SpamGuard spamGuard = plugin.getSpamGuard();
+        if (spamGuard == null) {
+            return;
+        }
+
+        sender.sendMessage("§7Anti-spam dropped: §f" + spamGuard.getRateLimited() + " §7rate limited, §f" +
+            spamGuard.getDuplicates() + " §7duplicate, §f" + spamGuard.getMutedDrops() + " §7while muted §7(§f" +
+            spamGuard.getMutes() + " §7mutes)");
+    }
+
+    /**
+     * Show how many permission profiles share cached command trees.
+     */
+    private void sendCommandBlockerStats(CommandSender sender, OGEssentials plugin) {
+        CommandBlocker commandBlocker = plugin.getCommandBlocker();
+        if (commandBlocker == null) {
+            return;
+        }
+
+        sender.sendMessage("§7Command tree profiles cached: §f" + commandBlocker.getProfileCount());
+    }
+
+    /**
+     * Show area mining protection check statistics.
+     */
+    private void sendProtectionStats(CommandSender sender, OGEssentials plugin) {
+        ProtectionDecisionCache cache = plugin.getProtectionDecisionCache();
+        if (cache == null) {
+            return;
+        }
+
+        String state = cache.isEnabled() ? "§aenabled" : "§cdisabled";
+        sender.sendMessage("§7Area mining protection check: " + state);
+        sender.sendMessage(String.format("§7  Cache hits: §f%d §7misses: §f%d §7hit rate: §f%.1f%% §7denied: §f%d",
+            cache.getHits(), cache.getMisses(), cache.getHitRate() * 100.0, cache.getDenials()));
+    }
+    
     @Override
     public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
         if (args.length == 1) {
@@ -79,10 +301,35 @@ public class OGEssentialsCommand implements CommandExecutor, TabCompleter {
             if ("reload".startsWith(partial) && sender.hasPermission("ogessentials.reload")) {
                 completions.add("reload");
             }
+            if ("stats".startsWith(partial) && sender.hasPermission("ogessentials.stats")) {
+                completions.add("stats");
+            }
+            if ("afkdebug".startsWith(partial) && sender.hasPermission("ogessentials.afk.debug")) {
+                completions.add("afkdebug");
+            }
             
             return completions;
         }
         
+        if (args.length == 2 && args[0].equalsIgnoreCase("stats") && sender.hasPermission("ogessentials.stats")) {
+            List<String> completions = new ArrayList<>();
+            if ("mining".startsWith(args[1].toLowerCase())) {
+                completions.add("mining");
+            }
+            return completions;
+        }
+        
+        if (args.length == 2 && args[0].equalsIgnoreCase("afkdebug") && sender.hasPermission("ogessentials.afk.debug")) {
+            List<String> completions = new ArrayList<>();
+            String partial = args[1].toLowerCase();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (player.getName().toLowerCase().startsWith(partial)) {
+                    completions.add(player.getName());
+                }
+            }
+            return completions;
+        }
+        
         // Delegate to subcommand tab completer
         if (args.length > 1 && args[0].equalsIgnoreCase("update")) {
             String[] updateArgs = Arrays.copyOfRange(args, 1, args.length);
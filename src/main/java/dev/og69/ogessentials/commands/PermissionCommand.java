@@ -126,7 +126,7 @@ public class PermissionCommand implements CommandExecutor, TabCompleter {
             // Notify player if online
             Player targetPlayer = Bukkit.getPlayer(uuid);
             if (targetPlayer != null) {
-                String prefix = ChatColor.translateAlternateColorCodes('&', plugin.getConfig().getString("prefix", "&7[&bOG-Essentials&7] &r"));
+                String prefix = plugin.getComponentCache().legacyPrefix();
                 String senderName = (sender instanceof Player) ? sender.getName() : "Console";
                 targetPlayer.sendMessage(prefix + ChatColor.AQUA + "You have been granted permission: " + ChatColor.YELLOW + permission + ChatColor.AQUA + " by " + ChatColor.YELLOW + senderName);
             }
@@ -155,7 +155,7 @@ public class PermissionCommand implements CommandExecutor, TabCompleter {
             // Notify player if online
             Player targetPlayer = Bukkit.getPlayer(uuid);
             if (targetPlayer != null) {
-                String prefix = ChatColor.translateAlternateColorCodes('&', plugin.getConfig().getString("prefix", "&7[&bOG-Essentials&7] &r"));
+                String prefix = plugin.getComponentCache().legacyPrefix();
                 String senderName = (sender instanceof Player) ? sender.getName() : "Console";
                 targetPlayer.sendMessage(prefix + ChatColor.RED + "The permission: " + ChatColor.YELLOW + permission + ChatColor.RED + " has been removed from you by " + ChatColor.YELLOW + senderName);
             }
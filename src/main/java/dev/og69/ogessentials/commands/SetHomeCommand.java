@@ -91,7 +91,6 @@ public class SetHomeCommand implements CommandExecutor, TabCompleter {
     }
     
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
 }
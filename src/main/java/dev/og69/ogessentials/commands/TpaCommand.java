@@ -70,7 +70,7 @@ public class TpaCommand implements CommandExecutor, TabCompleter {
         // Send the request
         if (tpaManager.sendRequest(player, target)) {
             // Get expiry time for message
-            int expirySeconds = plugin.getConfig().getInt("tpa.expiry", 60);
+            int expirySeconds = plugin.getSettings().tpaExpirySeconds();
             
             player.sendMessage(prefix + ChatColor.GREEN + "TPA request sent to " + ChatColor.WHITE + 
                 target.getName() + ChatColor.GREEN + "! They have " + expirySeconds + " seconds to accept.");
@@ -107,7 +107,6 @@ public class TpaCommand implements CommandExecutor, TabCompleter {
     }
     
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
 }
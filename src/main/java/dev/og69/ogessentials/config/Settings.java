@@ -0,0 +1,252 @@
+package dev.og69.ogessentials.config;
+
+import dev.og69.ogessentials.text.ComponentCache;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Typed, immutable snapshot of the config values read on hot paths.
+ *
+ * Built once from config.yml on enable and on every reload, then published
+ * by OGEssentials through a volatile reference, so readers on any thread
+ * always see one complete snapshot and never walk the YAML tree per call.
+ * Invalid values are reported when the snapshot is built and replaced with
+ * their defaults.
+ *
+ * @param prefix Message prefix template ('&' codes, untranslated)
+ * @param afkTimeoutSeconds Seconds of inactivity before a player is AFK
+ * @param afkMessageColor Color used for AFK and sleep messages
+ * @param halfSleepAccelerate true if half-sleep speeds up the night instead of skipping it
+ * @param halfSleepMaxTicksPerTick Fastest night speed in accelerate mode
+ * @param maxHomes Maximum homes per player
+ * @param tpaExpirySeconds Seconds before a TPA request expires
+ * @param veinMaxBlocks Maximum blocks mined per vein
+ * @param veinBlocksPerTick Maximum vein blocks broken per tick
+ * @param chatFormat true if chat is formatted with prefix, name and suffix
+ * @param chatSeparator Text between the name and the message ('&' codes)
+ * @param mentionsEnabled true if mentioned player names are highlighted
+ * @param mentionColor Color of highlighted names
+ * @param mentionSound true if mentioned players hear a ping
+ * @param afkTracking What counts as activity for AFK detection
+ * @param afkCapacity Kicking AFK players on a busy server
+ * @param nameTagRejoinGraceSeconds Seconds a quitting player's team is kept for a rejoin
+ * @param protectionCheck Area mining protection check
+ * @param miningStats Mining telemetry
+ * @param antiSpam Chat and command rate limits
+ * @param commandBlocker Blocked command rules (uncompiled)
+ */
+public record Settings(
+    String prefix,
+    int afkTimeoutSeconds,
+    TextColor afkMessageColor,
+    boolean halfSleepAccelerate,
+    int halfSleepMaxTicksPerTick,
+    int maxHomes,
+    int tpaExpirySeconds,
+    int veinMaxBlocks,
+    int veinBlocksPerTick,
+    boolean chatFormat,
+    String chatSeparator,
+    boolean mentionsEnabled,
+    TextColor mentionColor,
+    boolean mentionSound,
+    AfkTracking afkTracking,
+    AfkCapacity afkCapacity,
+    int nameTagRejoinGraceSeconds,
+    ProtectionCheck protectionCheck,
+    MiningTelemetry miningStats,
+    AntiSpam antiSpam,
+    CommandBlockerRules commandBlocker
+) {
+
+    /**
+     * AFK activity settings (afk.*).
+     *
+     * @param lookThreshold Head rotation in degrees that counts as activity
+     * @param persistState true if AFK state survives restarts
+     * @param activitySources Activity source config key to enabled (missing = enabled)
+     * @param machineDetection true if mechanical movement is ignored
+     * @param minSamples Block crossings needed before movement is judged
+     * @param maxEntropy Entropy at or below which movement is mechanical
+     * @param minPeriodicity Repetition ratio at or above which movement is mechanical
+     * @param minRevisits Share of crossings that must revisit a block
+     */
+    public record AfkTracking(double lookThreshold, boolean persistState, Map<String, Boolean> activitySources,
+                              boolean machineDetection, int minSamples, double maxEntropy,
+                              double minPeriodicity, double minRevisits) {}
+
+    /**
+     * AFK capacity kick settings (afk.capacity.*).
+     *
+     * @param kickMessage Kick message template ('&' codes)
+     */
+    public record AfkCapacity(boolean enabled, int thresholdPercent, boolean kickWhenFull, String kickMessage) {}
+
+    /**
+     * Area mining protection check settings (area-mining.protection-check.*).
+     */
+    public record ProtectionCheck(boolean enabled, long cacheTtlMillis) {}
+
+    /**
+     * Mining telemetry settings (mining-stats.*).
+     */
+    public record MiningTelemetry(boolean enabled, int flushIntervalSeconds) {}
+
+    /**
+     * Limits for one anti-spam channel (anti-spam.chat / anti-spam.commands).
+     */
+    public record SpamChannel(long intervalMillis, int burst, int duplicateHistory, long duplicateWindowMillis) {}
+
+    /**
+     * Anti-spam settings (anti-spam.*).
+     */
+    public record AntiSpam(boolean enabled, SpamChannel chat, SpamChannel commands, int muteAfter,
+                           long muteMillis, long violationResetMillis) {}
+
+    /**
+     * Command blocker rules as written in config (command-blocker.*).
+     *
+     * @param blockedCommands Rules applied in every world
+     * @param worlds Extra rules per world name
+     */
+    public record CommandBlockerRules(List<String> blockedCommands, Map<String, List<String>> worlds) {}
+
+    /**
+     * Build a snapshot from the loaded config, logging every invalid value.
+     *
+     * @param config The loaded config.yml
+     * @param logger Logger for validation warnings
+     * @return The new snapshot
+     */
+    public static Settings load(FileConfiguration config, Logger logger) {
+        String prefix = config.getString("prefix", ComponentCache.DEFAULT_PREFIX);
+
+        int afkTimeout = atLeast(config, logger, "afk.timeout", 300, 1);
+
+        String colorCode = config.getString("afk.message-color", "&a");
+        TextColor afkMessageColor = ComponentCache.color(colorCode);
+        if (afkMessageColor == null) {
+            logger.warning("Invalid afk.message-color '" + colorCode + "', using &a.");
+            afkMessageColor = NamedTextColor.GREEN;
+        }
+
+        String mode = config.getString("half-sleep.mode", "skip");
+        boolean accelerate = "accelerate".equalsIgnoreCase(mode);
+        if (!accelerate && !"skip".equalsIgnoreCase(mode)) {
+            logger.warning("Invalid half-sleep.mode '" + mode + "' (expected skip or accelerate), using skip.");
+        }
+        int maxTicksPerTick = atLeast(config, logger, "half-sleep.max-ticks-per-tick", 60, 1);
+
+        int maxHomes = atLeast(config, logger, "homes.max-homes", 3, 0);
+        int tpaExpiry = atLeast(config, logger, "tpa.expiry", 60, 1);
+
+        int veinMaxBlocks = atLeast(config, logger, "vein-miner.max-blocks", 64, 1);
+        int veinBlocksPerTick = atLeast(config, logger, "vein-miner.blocks-per-tick", 8, 1);
+
+        boolean chatFormat = config.getBoolean("chat.format", true);
+        String chatSeparator = config.getString("chat.separator", "&7: &r");
+
+        boolean mentionsEnabled = config.getBoolean("chat.mentions.enabled", true);
+        String mentionCode = config.getString("chat.mentions.color", "&e");
+        TextColor mentionColor = ComponentCache.color(mentionCode);
+        if (mentionColor == null) {
+            logger.warning("Invalid chat.mentions.color '" + mentionCode + "', using &e.");
+            mentionColor = NamedTextColor.YELLOW;
+        }
+        boolean mentionSound = config.getBoolean("chat.mentions.sound", true);
+
+        Map<String, Boolean> activitySources = new HashMap<>();
+        ConfigurationSection sources = config.getConfigurationSection("afk.activity-sources");
+        if (sources != null) {
+            for (String key : sources.getKeys(false)) {
+                activitySources.put(key, sources.getBoolean(key, true));
+            }
+        }
+        AfkTracking afkTracking = new AfkTracking(
+            config.getDouble("afk.look-threshold", 45.0),
+            config.getBoolean("afk.persist-state", true),
+            Map.copyOf(activitySources),
+            config.getBoolean("afk.machine-detection.enabled", false),
+            config.getInt("afk.machine-detection.min-samples", 48),
+            config.getDouble("afk.machine-detection.max-entropy", 1.0),
+            config.getDouble("afk.machine-detection.min-periodicity", 0.95),
+            config.getDouble("afk.machine-detection.min-revisits", 0.5)
+        );
+
+        AfkCapacity afkCapacity = new AfkCapacity(
+            config.getBoolean("afk.capacity.enabled", false),
+            Math.max(1, Math.min(100, config.getInt("afk.capacity.threshold-percent", 90))),
+            config.getBoolean("afk.capacity.kick-when-full", true),
+            config.getString("afk.capacity.kick-message", "&cYou were kicked for being AFK while the server was busy.")
+        );
+
+        int rejoinGrace = atLeast(config, logger, "name-tags.rejoin-grace", 60, 0);
+
+        ProtectionCheck protectionCheck = new ProtectionCheck(
+            config.getBoolean("area-mining.protection-check.enabled", false),
+            Math.max(0L, config.getLong("area-mining.protection-check.cache-ttl-ms", 3000L))
+        );
+
+        MiningTelemetry miningStats = new MiningTelemetry(
+            config.getBoolean("mining-stats.enabled", true),
+            atLeast(config, logger, "mining-stats.flush-interval", 300, 1)
+        );
+
+        AntiSpam antiSpam = new AntiSpam(
+            config.getBoolean("anti-spam.enabled", true),
+            spamChannel(config, "chat", 4, 1500, 3),
+            spamChannel(config, "commands", 8, 500, 0),
+            Math.max(1, config.getInt("anti-spam.mute-after", 3)),
+            Math.max(1, config.getInt("anti-spam.mute-seconds", 60)) * 1000L,
+            Math.max(1, config.getInt("anti-spam.violation-reset", 30)) * 1000L
+        );
+
+        Map<String, List<String>> blockedWorlds = new HashMap<>();
+        ConfigurationSection worlds = config.getConfigurationSection("command-blocker.worlds");
+        if (worlds != null) {
+            for (String world : worlds.getKeys(false)) {
+                blockedWorlds.put(world, List.copyOf(worlds.getStringList(world)));
+            }
+        }
+        CommandBlockerRules commandBlocker = new CommandBlockerRules(
+            List.copyOf(config.getStringList("command-blocker.blocked-commands")),
+            Map.copyOf(blockedWorlds)
+        );
+
+        return new Settings(prefix, afkTimeout, afkMessageColor, accelerate, maxTicksPerTick,
+            maxHomes, tpaExpiry, veinMaxBlocks, veinBlocksPerTick, chatFormat, chatSeparator,
+            mentionsEnabled, mentionColor, mentionSound, afkTracking, afkCapacity, rejoinGrace,
+            protectionCheck, miningStats, antiSpam, commandBlocker);
+    }
+
+    private static SpamChannel spamChannel(FileConfiguration config, String name, int burst, long interval,
+                                           int history) {
+        String path = "anti-spam." + name + ".";
+        return new SpamChannel(
+            Math.max(1L, config.getLong(path + "interval-ms", interval)),
+            Math.max(1, config.getInt(path + "burst", burst)),
+            Math.max(0, Math.min(32, config.getInt(path + "duplicate-history", history))),
+            Math.max(1, config.getInt(path + "duplicate-window", 30)) * 1000L
+        );
+    }
+
+    /**
+     * Read an integer that must be at least {@code min}, falling back to
+     * the default (with a warning) when it is not.
+     */
+    private static int atLeast(FileConfiguration config, Logger logger, String path, int def, int min) {
+        int value = config.getInt(path, def);
+        if (value < min) {
+            logger.warning("Invalid " + path + " (" + value + ", must be at least " + min + "), using " + def + ".");
+            return def;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,47 @@
+package dev.og69.ogessentials.events;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+
+/**
+ * Fired by AfkManager after a player's AFK status has changed.
+ *
+ * Listeners that keep per-player counts (half-sleep, capacity) use it to
+ * stay in sync instead of polling AfkManager.
+ */
+public class AfkStatusChangeEvent extends PlayerEvent {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final boolean afk;
+
+    /**
+     * Create a new AFK status change event.
+     *
+     * @param player The player whose status changed
+     * @param afk true if the player is now AFK
+     */
+    public AfkStatusChangeEvent(Player player, boolean afk) {
+        super(player);
+        this.afk = afk;
+    }
+
+    /**
+     * Check the player's new status.
+     *
+     * @return true if the player is now AFK
+     */
+    public boolean isAfk() {
+        return afk;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,54 @@
+package dev.og69.ogessentials.events;
+
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+
+/**
+ * Synthetic BlockBreakEvent fired for blocks broken by area mining tools.
+ *
+ * This is a check event, not a real break: protection plugins see it like
+ * any other block break and may cancel it. OG-Essentials records the
+ * outcome at MONITOR priority, once every protection plugin has decided,
+ * and then cancels the event so loggers, jobs and reward plugins that
+ * ignore cancelled events do not count it. The block is broken afterwards
+ * by our own code, which logs it to CoreProtect itself.
+ *
+ * Listeners that act on real breaks should also skip this event with
+ * {@code if (event instanceof AreaBlockBreakEvent) return;}.
+ */
+public class AreaBlockBreakEvent extends BlockBreakEvent {
+
+    // Outcome recorded at MONITOR (null until recorded)
+    private Boolean allowed;
+
+    /**
+     * Create a new area block break check.
+     *
+     * @param block The block that area mining wants to break
+     * @param player The player mining
+     */
+    public AreaBlockBreakEvent(Block block, Player player) {
+        super(block, player);
+    }
+
+    /**
+     * Record the protection outcome and cancel the check
+     * (called by ProtectionCheckListener at MONITOR).
+     */
+    public void recordOutcome() {
+        if (allowed == null) {
+            allowed = !isCancelled();
+            setCancelled(true);
+        }
+    }
+
+    /**
+     * Check whether protection plugins allowed the break.
+     *
+     * @return The outcome recorded at MONITOR, or !isCancelled() if none was recorded
+     */
+    public boolean isAllowed() {
+        return allowed != null ? allowed : !isCancelled();
+    }
+}
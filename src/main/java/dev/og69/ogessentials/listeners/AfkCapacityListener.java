@@ -0,0 +1,26 @@
+package dev.og69.ogessentials.listeners;
+
+import dev.og69.ogessentials.managers.AfkCapacityManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerLoginEvent;
+
+/**
+ * Lets players join a full server by kicking the longest-idle AFK player.
+ */
+public class AfkCapacityListener implements Listener {
+
+    private final AfkCapacityManager capacityManager;
+
+    public AfkCapacityListener(AfkCapacityManager capacityManager) {
+        this.capacityManager = capacityManager;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onPlayerLogin(PlayerLoginEvent event) {
+        if (event.getResult() == PlayerLoginEvent.Result.KICK_FULL && capacityManager.makeRoom()) {
+            event.allow();
+        }
+    }
+}
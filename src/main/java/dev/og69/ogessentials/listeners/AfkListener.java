@@ -1,10 +1,15 @@
 package dev.og69.ogessentials.listeners;
 
 import dev.og69.ogessentials.managers.AfkManager;
-import org.bukkit.Location;
+import dev.og69.ogessentials.managers.AfkManager.ActivitySource;
+import io.papermc.paper.event.player.AsyncChatEvent;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerItemHeldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
@@ -12,8 +17,10 @@ import org.bukkit.event.player.PlayerQuitEvent;
 /**
  * Listens for player activity events to track AFK status.
  * 
- * Updates last activity time on movement and handles
- * player join/quit for initialization and cleanup.
+ * Updates last activity time on movement, head rotation, chat, commands,
+ * interaction and hotbar changes (each configurable under
+ * afk.activity-sources) and handles player join/quit for initialization
+ * and cleanup.
  */
 public class AfkListener implements Listener {
     
@@ -30,15 +37,53 @@ public class AfkListener implements Listener {
     
     /**
      * Track player movement to update activity time.
-     * Only triggers on actual position change (not just head rotation).
+     * Only counts crossing a block boundary or turning the head past
+     * afk.look-threshold, not every sub-block movement packet.
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onPlayerMove(PlayerMoveEvent event) {
-        Location from = event.getFrom();
-        Location to = event.getTo();
-        
-        // Only count actual movement, not just head rotation
-        if (to != null && (from.getX() != to.getX() || from.getY() != to.getY() || from.getZ() != to.getZ())) {
+        afkManager.handleMovement(event.getPlayer(), event.getFrom(), event.getTo());
+    }
+    
+    /**
+     * Track chat. Runs off the main thread, so the activity is only
+     * recorded here and applied on the next tick.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerChat(AsyncChatEvent event) {
+        if (afkManager.countsAsActivity(ActivitySource.CHAT)) {
+            afkManager.recordAsyncActivity(event.getPlayer().getUniqueId());
+        }
+    }
+    
+    /**
+     * Track commands, except /afk itself so it can still toggle AFK on.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        if (!afkManager.countsAsActivity(ActivitySource.COMMAND) || isAfkCommand(event.getMessage())) {
+            return;
+        }
+        afkManager.updateActivity(event.getPlayer());
+    }
+    
+    /**
+     * Track clicks. Physical interactions (pressure plates, tripwires)
+     * are ignored since a machine can trigger them.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerInteract(PlayerInteractEvent event) {
+        if (event.getAction() != Action.PHYSICAL && afkManager.countsAsActivity(ActivitySource.INTERACT)) {
+            afkManager.updateActivity(event.getPlayer());
+        }
+    }
+    
+    /**
+     * Track hotbar slot changes.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        if (afkManager.countsAsActivity(ActivitySource.ITEM_HELD)) {
             afkManager.updateActivity(event.getPlayer());
         }
     }
@@ -58,4 +103,14 @@ public class AfkListener implements Listener {
     public void onPlayerQuit(PlayerQuitEvent event) {
         afkManager.cleanupPlayer(event.getPlayer());
     }
+    
+    private static boolean isAfkCommand(String message) {
+        int end = message.indexOf(' ');
+        String label = (end < 0 ? message.substring(1) : message.substring(1, end)).toLowerCase();
+        int namespace = label.indexOf(':');
+        if (namespace >= 0) {
+            label = label.substring(namespace + 1);
+        }
+        return label.equals("afk") || label.equals("away");
+    }
 }
@@ -1,8 +1,11 @@
 package dev.og69.ogessentials.listeners;
 
 import dev.og69.ogessentials.OGEssentials;
-import dev.og69.ogessentials.commands.Give3x3PickCommand;
+import dev.og69.ogessentials.events.AreaBlockBreakEvent;
 import dev.og69.ogessentials.hooks.CoreProtectHook;
+import dev.og69.ogessentials.managers.HeldToolCache;
+import dev.og69.ogessentials.managers.MiningStatsManager;
+import dev.og69.ogessentials.managers.VeinMineManager;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -14,9 +17,12 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.block.BlockBreakEvent;
 import org.bukkit.inventory.ItemStack;
 
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * Listener for block break events.
- * Handles 3x3 pickaxe mining functionality.
+ * Handles 3x3 pickaxe and Vein Miner mining functionality.
  */
 public class BlockBreakListener implements Listener {
     
@@ -28,15 +34,60 @@ public class BlockBreakListener implements Listener {
     
     @EventHandler(priority = EventPriority.NORMAL, ignoreCancelled = true)
     public void onBlockBreak(BlockBreakEvent event) {
+        // Ignore our own synthetic protection checks
+        if (event instanceof AreaBlockBreakEvent) {
+            return;
+        }
+        
         Player player = event.getPlayer();
+        HeldToolCache heldToolCache = plugin.getHeldToolCache();
+        
+        // Fast path: ordinary tools are rejected from the cache without touching the inventory
+        HeldToolCache.SpecialTool cached = heldToolCache.getCached(player.getUniqueId());
+        if (cached == HeldToolCache.SpecialTool.NONE) {
+            return;
+        }
+        
+        // Unknown or special: identify the actual item (and refresh the cache)
         ItemStack tool = player.getInventory().getItemInMainHand();
+        HeldToolCache.SpecialTool kind = heldToolCache.update(player.getUniqueId(), tool);
         
-        // Check if player is using a 3x3 pickaxe
-        if (!Give3x3PickCommand.is3x3Pickaxe(tool)) {
+        if (kind == HeldToolCache.SpecialTool.NONE) {
             return;
         }
         
-        Block centerBlock = event.getBlock();
+        long start = System.nanoTime();
+        
+        // Resolve the player's compiled break permissions once per swing
+        Set<Material> allowed = plugin.getPickaxePermissionCache().getAllowed(player);
+        
+        if (kind == HeldToolCache.SpecialTool.VEIN_MINER) {
+            // Vein Miner on an ore or log
+            VeinMineManager veinMineManager = plugin.getVeinMineManager();
+            if (veinMineManager != null && veinMineManager.isVeinable(event.getBlock().getType())) {
+                veinMineManager.startVein(player, event.getBlock(), tool, allowed, this);
+            }
+        } else {
+            // 3x3 pickaxe
+            mineArea(player, event.getBlock(), tool, allowed);
+        }
+        
+        // Record time spent handling this swing
+        MiningStatsManager miningStatsManager = plugin.getMiningStatsManager();
+        if (miningStatsManager != null) {
+            miningStatsManager.recordSwing(player, System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Mine the 3x3 plane around a block, oriented by where the player is looking.
+     * 
+     * @param player The player mining
+     * @param centerBlock The block broken by the event
+     * @param tool The 3x3 pickaxe
+     * @param allowed The materials the player may break
+     */
+    private void mineArea(Player player, Block centerBlock, ItemStack tool, Set<Material> allowed) {
         Location centerLocation = centerBlock.getLocation();
         Location playerLocation = player.getLocation();
         float pitch = playerLocation.getPitch();
@@ -62,7 +113,7 @@ public class BlockBreakListener implements Listener {
                     Block targetBlock = targetLocation.getBlock();
                     
                     if (targetBlock.getType() != Material.AIR) {
-                        breakBlockNaturally(player, targetBlock, tool);
+                        breakBlockNaturally(player, targetBlock, tool, allowed);
                     }
                 }
             }
@@ -90,7 +141,7 @@ public class BlockBreakListener implements Listener {
                         Block targetBlock = targetLocation.getBlock();
                         
                         if (targetBlock.getType() != Material.AIR) {
-                            breakBlockNaturally(player, targetBlock, tool);
+                            breakBlockNaturally(player, targetBlock, tool, allowed);
                         }
                     }
                 }
@@ -106,7 +157,7 @@ public class BlockBreakListener implements Listener {
                         Block targetBlock = targetLocation.getBlock();
                         
                         if (targetBlock.getType() != Material.AIR) {
-                            breakBlockNaturally(player, targetBlock, tool);
+                            breakBlockNaturally(player, targetBlock, tool, allowed);
                         }
                     }
                 }
@@ -116,33 +167,53 @@ public class BlockBreakListener implements Listener {
     
     /**
      * Break a block naturally using the player's tool.
-     * This simulates the player breaking the block with their tool.
+     * This simulates the player breaking the block with their tool: the
+     * tool's drops (fortune, silk touch) are rolled once and dropped.
+     * Shared by the 3x3 pickaxe and the Vein Miner.
      * 
      * @param player The player breaking the block
      * @param block The block to break
      * @param tool The tool being used
+     * @param allowed The materials the player may break (from PickaxePermissionCache)
      */
-    private void breakBlockNaturally(Player player, Block block, ItemStack tool) {
+    public void breakBlockNaturally(Player player, Block block, ItemStack tool, Set<Material> allowed) {
         // Check if block can be broken
         if (block.getType() == Material.AIR || block.getType() == Material.BEDROCK) {
             return;
         }
         
         // Check if player has permission to break this block
-        if (!player.hasPermission("ogessentials.3x3pick.break.*")) {
-            // Check specific block type permission
-            String blockPerm = "ogessentials.3x3pick.break." + block.getType().name().toLowerCase();
-            if (!player.hasPermission(blockPerm)) {
-                return;
-            }
+        if (!allowed.contains(block.getType())) {
+            return;
+        }
+        
+        // Check protection plugins (only when the protection check is enabled)
+        if (!plugin.getProtectionDecisionCache().canBreak(player, block)) {
+            return;
         }
         
         // Save block state for CoreProtect logging (before breaking)
         BlockState oldState = block.getState();
         
-        // Break the block naturally (drops items, uses durability)
-        // Use the tool to break the block
-        block.breakNaturally(tool);
+        // Roll the loot once and drop exactly those items, so the drop count
+        // recorded below is what actually dropped (same as breakNaturally:
+        // drop the block's resources, then set it to air with physics)
+        Collection<ItemStack> drops = block.getDrops(tool, player);
+        Location dropLocation = block.getLocation().add(0.5, 0.5, 0.5);
+        int dropped = 0;
+        for (ItemStack drop : drops) {
+            if (drop.getType().isAir() || drop.getAmount() <= 0) {
+                continue;
+            }
+            block.getWorld().dropItemNaturally(dropLocation, drop);
+            dropped += drop.getAmount();
+        }
+        block.setType(Material.AIR);
+        
+        MiningStatsManager miningStatsManager = plugin.getMiningStatsManager();
+        if (miningStatsManager != null) {
+            miningStatsManager.recordBlock(player, dropped);
+        }
         
         // Log to CoreProtect if available (pass oldState captured before breaking)
         if (CoreProtectHook.isEnabled()) {
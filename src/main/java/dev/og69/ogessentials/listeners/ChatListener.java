@@ -1,20 +1,65 @@
 package dev.og69.ogessentials.listeners;
 
-import org.bukkit.ChatColor;
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import dev.og69.ogessentials.managers.PermissionManager;
+import dev.og69.ogessentials.text.ChatCodes;
+import dev.og69.ogessentials.text.ChatFormat;
+import io.papermc.paper.chat.ChatRenderer;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.player.AsyncPlayerChatEvent;
 
 /**
- * Listens for player chat events to translate color codes.
+ * Formats chat as prefix, name and suffix followed by the message, and
+ * translates the color and format codes each player is allowed to use.
+ *
+ * Runs entirely on the async chat thread: the player's format is an
+ * immutable ChatFormat snapshot kept by PermissionManager, and the
+ * message is rendered once for all viewers.
  */
 public class ChatListener implements Listener {
 
-    @EventHandler
-    public void onPlayerChat(AsyncPlayerChatEvent event) {
-        if (event.getPlayer().hasPermission("ogessentials.chat.color")) {
-            String message = event.getMessage();
-            event.setMessage(ChatColor.translateAlternateColorCodes('&', message));
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+
+    private final OGEssentials plugin;
+    private final PermissionManager permissionManager;
+
+    public ChatListener(OGEssentials plugin, PermissionManager permissionManager) {
+        this.plugin = plugin;
+        this.permissionManager = permissionManager;
+    }
+
+    @EventHandler(priority = EventPriority.HIGH, ignoreCancelled = true)
+    public void onPlayerChat(AsyncChatEvent event) {
+        Player player = event.getPlayer();
+
+        // Codes are checked against the mask compiled from permissions, without
+        // permission checks here; codes a player may not use stay as text
+        int codeMask = permissionManager.getChatCodeMask(player.getUniqueId());
+        if (codeMask != 0) {
+            String message = PLAIN.serialize(event.message());
+            if (message.indexOf('&') >= 0) {
+                event.message(ChatCodes.deserialize(message, codeMask));
+            }
         }
+
+        Settings settings = plugin.getSettings();
+        if (!settings.chatFormat()) {
+            return;
+        }
+        ChatFormat format = permissionManager.getChatFormat(player.getUniqueId());
+        if (format == null) {
+            return;
+        }
+
+        Component header = format.header();
+        Component separator = plugin.getComponentCache().get("chat-separator", settings.chatSeparator());
+        event.renderer(ChatRenderer.viewerUnaware(
+            (source, displayName, message) -> Component.textOfChildren(header, separator, message)));
     }
 }
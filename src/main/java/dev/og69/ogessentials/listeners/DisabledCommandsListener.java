@@ -1,25 +1,34 @@
 package dev.og69.ogessentials.listeners;
 
 import dev.og69.ogessentials.OGEssentials;
-import org.bukkit.ChatColor;
+import dev.og69.ogessentials.managers.CommandBlocker;
+import dev.og69.ogessentials.text.Message;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
 
-import java.util.List;
+import java.util.Locale;
 
 /**
  * Listens for player commands and blocks disabled commands.
- * Uses the command-blocker.blocked-commands config section.
- * Handles namespaced commands (e.g., minecraft:gamemode).
+ * Rules come from the command-blocker config section and are matched by
+ * CommandBlocker, which also handles namespaced commands (e.g.,
+ * minecraft:gamemode), aliases and per-world rules.
+ * Blocked commands are also hidden from tab completion.
  */
 public class DisabledCommandsListener implements Listener {
 
     private final OGEssentials plugin;
+    private final CommandBlocker commandBlocker;
 
-    public DisabledCommandsListener(OGEssentials plugin) {
+    public DisabledCommandsListener(OGEssentials plugin, CommandBlocker commandBlocker) {
         this.plugin = plugin;
+        this.commandBlocker = commandBlocker;
     }
 
     @EventHandler(priority = EventPriority.HIGHEST)
@@ -29,38 +38,54 @@ public class DisabledCommandsListener implements Listener {
         }
 
         String message = event.getMessage();
-        
-        // Extract the command (without leading /)
+
+        // Extract the command label (without leading /)
         if (!message.startsWith("/")) {
             return;
         }
-        
-        String fullCommand = message.substring(1).split(" ")[0].toLowerCase();
-        
-        // Strip namespace prefix (minecraft:, bukkit:, etc.)
-        String baseCommand = fullCommand;
-        if (fullCommand.contains(":")) {
-            baseCommand = fullCommand.substring(fullCommand.indexOf(":") + 1);
-        }
-        
-        // Get blocked commands from config
-        List<String> blockedCommands = plugin.getConfig().getStringList("command-blocker.blocked-commands");
-        
-        // Check if command is blocked (case-insensitive)
-        boolean isBlocked = false;
-        for (String blocked : blockedCommands) {
-            if (blocked.equalsIgnoreCase(baseCommand) || blocked.equalsIgnoreCase(fullCommand)) {
-                isBlocked = true;
-                break;
-            }
-        }
-        
-        if (isBlocked) {
+
+        int end = message.indexOf(' ');
+        String label = (end < 0 ? message.substring(1) : message.substring(1, end)).toLowerCase(Locale.ROOT);
+
+        String blocked = commandBlocker.check(event.getPlayer(), label);
+        if (blocked != null) {
             event.setCancelled(true);
-            String prefix = ChatColor.translateAlternateColorCodes('&',
-                plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
-            event.getPlayer().sendMessage(prefix + ChatColor.RED + "❌ This command (" + 
-                ChatColor.DARK_RED + "/" + baseCommand + ChatColor.RED + ") is disabled on this server.");
+            plugin.getMessages().send(event.getPlayer(), Message.COMMAND_BLOCKED, blocked);
         }
     }
+
+    /**
+     * Hide blocked commands from the client command tree (tab completion).
+     */
+    @EventHandler(priority = EventPriority.HIGHEST)
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        commandBlocker.filterCommands(event.getPlayer(), event.getCommands());
+    }
+
+    /**
+     * Resend the command tree when world rules differ between the two worlds.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        if (commandBlocker.hasWorldRules(event.getFrom().getName())
+            || commandBlocker.hasWorldRules(event.getPlayer().getWorld().getName())) {
+            event.getPlayer().updateCommands();
+        }
+    }
+
+    /**
+     * Re-resolve aliases when a plugin adds commands.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        commandBlocker.clearResolutions();
+    }
+
+    /**
+     * Re-resolve aliases when a plugin removes commands.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        commandBlocker.clearResolutions();
+    }
 }
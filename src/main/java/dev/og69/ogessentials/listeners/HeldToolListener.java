@@ -0,0 +1,48 @@
+package dev.og69.ogessentials.listeners;
+
+import dev.og69.ogessentials.managers.HeldToolCache;
+import io.papermc.paper.event.player.PlayerInventorySlotChangeEvent;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerItemHeldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerSwapHandItemsEvent;
+
+/**
+ * Keeps the HeldToolCache in sync with what players hold in their main hand.
+ */
+public class HeldToolListener implements Listener {
+
+    private final HeldToolCache heldToolCache;
+
+    public HeldToolListener(HeldToolCache heldToolCache) {
+        this.heldToolCache = heldToolCache;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onItemHeld(PlayerItemHeldEvent event) {
+        Player player = event.getPlayer();
+        heldToolCache.update(player.getUniqueId(), player.getInventory().getItem(event.getNewSlot()));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSwapHands(PlayerSwapHandItemsEvent event) {
+        heldToolCache.update(event.getPlayer().getUniqueId(), event.getMainHandItem());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSlotChange(PlayerInventorySlotChangeEvent event) {
+        // Covers clicks, drags, pickups, drops, /give and tool durability changes
+        Player player = event.getPlayer();
+        if (event.getSlot() == player.getInventory().getHeldItemSlot()) {
+            heldToolCache.update(player.getUniqueId(), event.getNewItemStack());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        heldToolCache.invalidate(event.getPlayer().getUniqueId());
+    }
+}
@@ -154,8 +154,7 @@ public class KeepInventoryListener implements Listener {
      * Get the configured message prefix.
      */
     private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+        return plugin.getComponentCache().legacyPrefix();
     }
     
     /**
@@ -0,0 +1,220 @@
+package dev.og69.ogessentials.listeners;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import dev.og69.ogessentials.text.NameAutomaton;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Bukkit;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Highlights online player names in chat and pings the mentioned players.
+ *
+ * Names are matched in one pass by a NameAutomaton, which is rebuilt on
+ * the main thread when a player joins or quits and published through a
+ * volatile field, so the async chat thread never waits for it. Runs at
+ * HIGHEST so color codes have already been translated.
+ *
+ * The automaton reports where each name sits in the plain text, and the
+ * message is rebuilt in a single walk over its components, splitting text
+ * at those offsets. A name spread over differently styled components is
+ * still highlighted.
+ */
+public class MentionListener implements Listener {
+
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+
+    private final OGEssentials plugin;
+    private volatile NameAutomaton automaton = NameAutomaton.EMPTY;
+
+    public MentionListener(OGEssentials plugin) {
+        this.plugin = plugin;
+
+        // Include players already online (plugin reload)
+        rebuild(null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        rebuild(null);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // The quitting player is still listed as online during this event
+        rebuild(event.getPlayer().getUniqueId());
+    }
+
+    @EventHandler(priority = EventPriority.HIGHEST, ignoreCancelled = true)
+    public void onPlayerChat(AsyncChatEvent event) {
+        Settings settings = plugin.getSettings();
+        if (!settings.mentionsEnabled()) {
+            return;
+        }
+
+        NameAutomaton current = automaton;
+        int[] matches = current.findMentions(PLAIN.serialize(event.message()));
+        if (matches.length == 0) {
+            return;
+        }
+
+        // Keep the matches of other players' names, in message order
+        UUID senderId = event.getPlayer().getUniqueId();
+        int[] ranges = new int[matches.length / 3 * 2];
+        int rangeCount = 0;
+        List<UUID> pinged = new ArrayList<>(matches.length / 3);
+        for (int i = 0; i < matches.length; i += 3) {
+            UUID playerId = current.playerId(matches[i + 2]);
+            if (playerId.equals(senderId)) {
+                continue;
+            }
+            ranges[rangeCount++] = matches[i];
+            ranges[rangeCount++] = matches[i + 1];
+            if (!pinged.contains(playerId)) {
+                pinged.add(playerId);
+            }
+        }
+        if (pinged.isEmpty()) {
+            return;
+        }
+        event.message(new Highlighter(ranges, rangeCount, settings.mentionColor()).apply(event.message()));
+
+        if (settings.mentionSound()) {
+            Bukkit.getScheduler().runTask(plugin, () -> ping(pinged));
+        }
+    }
+
+    /**
+     * Colors ranges of a component's plain text, walking the component
+     * tree once in the order the plain text serializer flattens it.
+     */
+    private static final class Highlighter {
+
+        private final int[] ranges;
+        private final int rangeCount;
+        private final TextColor color;
+
+        // Plain text offset of the component being visited, and the first
+        // range (index into ranges) that does not end before it
+        private int position;
+        private int range;
+
+        Highlighter(int[] ranges, int rangeCount, TextColor color) {
+            this.ranges = ranges;
+            this.rangeCount = rangeCount;
+            this.color = color;
+        }
+
+        Component apply(Component component) {
+            List<Component> pieces = null;
+            if (component instanceof TextComponent text) {
+                pieces = split(text);
+            } else {
+                // Other components are left as they are; only skip their text
+                position += PLAIN.serialize(component.children(List.of())).length();
+            }
+
+            List<Component> children = component.children();
+            List<Component> updated = null;
+            for (int i = 0; i < children.size(); i++) {
+                Component child = children.get(i);
+                Component highlighted = apply(child);
+                if (highlighted != child && updated == null) {
+                    updated = new ArrayList<>(children.subList(0, i));
+                }
+                if (updated != null) {
+                    updated.add(highlighted);
+                }
+            }
+            if (pieces == null && updated == null) {
+                return component;
+            }
+
+            // Split text goes before the component's own children
+            List<Component> newChildren = pieces != null ? pieces : new ArrayList<>(children.size());
+            newChildren.addAll(updated != null ? updated : children);
+            Component base = pieces != null ? ((TextComponent) component).content("") : component;
+            return base.children(newChildren);
+        }
+
+        /**
+         * Split a text component's own content at the ranges it overlaps.
+         * The pieces become children of an empty copy, so they inherit its
+         * style.
+         *
+         * @return The pieces, or null if no range overlaps the content
+         */
+        private List<Component> split(TextComponent text) {
+            String content = text.content();
+            int start = position;
+            int end = start + content.length();
+            position = end;
+
+            List<Component> pieces = null;
+            int cursor = start;
+            while (range < rangeCount && ranges[range] < end) {
+                int from = Math.max(ranges[range], cursor);
+                int to = Math.min(ranges[range + 1], end);
+                if (from < to) {
+                    if (pieces == null) {
+                        pieces = new ArrayList<>();
+                    }
+                    if (from > cursor) {
+                        pieces.add(Component.text(content.substring(cursor - start, from - start)));
+                    }
+                    pieces.add(Component.text(content.substring(from - start, to - start), color));
+                    cursor = to;
+                }
+                if (ranges[range + 1] > end) {
+                    // Continues into the next component
+                    break;
+                }
+                range += 2;
+            }
+            if (pieces != null && cursor < end) {
+                pieces.add(Component.text(content.substring(cursor - start)));
+            }
+            return pieces;
+        }
+    }
+
+    private void ping(List<UUID> playerIds) {
+        for (UUID playerId : playerIds) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                player.playSound(player.getLocation(), Sound.ENTITY_EXPERIENCE_ORB_PICKUP, 1.0f, 1.0f);
+            }
+        }
+    }
+
+    /**
+     * Rebuild the automaton from the online players.
+     *
+     * @param excluded A player to leave out (quitting), or null
+     */
+    private void rebuild(UUID excluded) {
+        List<String> names = new ArrayList<>();
+        List<UUID> playerIds = new ArrayList<>();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (!player.getUniqueId().equals(excluded)) {
+                names.add(player.getName());
+                playerIds.add(player.getUniqueId());
+            }
+        }
+        automaton = NameAutomaton.build(names.toArray(new String[0]), playerIds.toArray(new UUID[0]));
+    }
+}
@@ -0,0 +1,24 @@
+package dev.og69.ogessentials.listeners;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import dev.og69.ogessentials.managers.NameTagManager;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Flushes coalesced name tag updates once at the end of every tick.
+ */
+public class NameTagFlushListener implements Listener {
+
+    private final NameTagManager nameTagManager;
+
+    public NameTagFlushListener(NameTagManager nameTagManager) {
+        this.nameTagManager = nameTagManager;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        nameTagManager.flush();
+    }
+}
@@ -4,11 +4,13 @@ import dev.og69.ogessentials.managers.PermissionManager;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandSendEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
- * Listener to apply permissions on player join and cleanup on quit.
+ * Listener to apply permissions on player join and cleanup on quit, and to
+ * refresh compiled permission snapshots when the server resends commands.
  */
 public class PermissionListener implements Listener {
 
@@ -26,6 +28,12 @@ public class PermissionListener implements Listener {
         permissionManager.updatePlayerNameTag(event.getPlayer());
     }
 
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onCommandSend(PlayerCommandSendEvent event) {
+        // Fired after op/deop and when permission plugins call updateCommands()
+        permissionManager.refreshCompiledPermissions(event.getPlayer());
+    }
+
     @EventHandler(priority = EventPriority.MONITOR)
     public void onPlayerQuit(PlayerQuitEvent event) {
         permissionManager.cleanupPlayer(event.getPlayer());
@@ -0,0 +1,35 @@
+package dev.og69.ogessentials.listeners;
+
+import dev.og69.ogessentials.events.AreaBlockBreakEvent;
+import dev.og69.ogessentials.managers.ProtectionDecisionCache;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Records the outcome of synthetic area mining break checks and drops
+ * cached decisions when a player quits.
+ *
+ * The outcome is read at MONITOR, after every protection plugin (at any
+ * priority up to HIGHEST) has decided, and the check is then cancelled so
+ * loggers and job plugins that ignore cancelled events skip it.
+ */
+public class ProtectionCheckListener implements Listener {
+
+    private final ProtectionDecisionCache decisionCache;
+
+    public ProtectionCheckListener(ProtectionDecisionCache decisionCache) {
+        this.decisionCache = decisionCache;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAreaBlockBreak(AreaBlockBreakEvent event) {
+        event.recordOutcome();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        decisionCache.clearPlayer(event.getPlayer().getUniqueId());
+    }
+}
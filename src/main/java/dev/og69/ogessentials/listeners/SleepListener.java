@@ -1,9 +1,11 @@
 package dev.og69.ogessentials.listeners;
 
 import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.events.AfkStatusChangeEvent;
 import dev.og69.ogessentials.managers.AfkManager;
+import dev.og69.ogessentials.tasks.NightAccelerationTask;
+import dev.og69.ogessentials.text.Message;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -11,11 +13,12 @@ import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerBedEnterEvent;
 import org.bukkit.event.player.PlayerBedLeaveEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -23,14 +26,56 @@ import java.util.UUID;
  * 
  * Night is skipped when at least half of non-AFK players
  * in a world are sleeping.
+ * 
+ * Active, AFK and sleeping counts are kept per world and updated from
+ * join, quit, world change, AFK change and bed events, so checking
+ * whether to skip the night never walks the world's player list.
+ * 
+ * With half-sleep.mode set to accelerate, the night is sped up instead
+ * of skipped, by one NightAccelerationTask per world that only runs
+ * while someone in that world is in bed.
  */
 public class SleepListener implements Listener {
     
+    // Night as seen by the bed logic, and the tick vanilla wakes sleepers at
+    private static final long NIGHT_START = 12541L;
+    private static final long NIGHT_END = 23458L;
+    private static final long WAKE_TIME = 23460L;
+    
     private final OGEssentials plugin;
     private final AfkManager afkManager;
     
-    // Track sleeping players per world
-    private final Map<String, Set<UUID>> sleepingPlayers = new HashMap<>();
+    /**
+     * Player counts for one world.
+     */
+    private static final class WorldCounts {
+        int active;
+        int afk;
+        int sleeping;
+    }
+    
+    /**
+     * Where a player is counted.
+     */
+    private static final class PlayerState {
+        UUID worldId;
+        boolean afk;
+        boolean sleeping;
+        
+        PlayerState(UUID worldId, boolean afk) {
+            this.worldId = worldId;
+            this.afk = afk;
+        }
+    }
+    
+    // Counts per world UUID
+    private final Map<UUID, WorldCounts> worldCounts = new HashMap<>();
+    
+    // Counted state per online player
+    private final Map<UUID, PlayerState> playerStates = new HashMap<>();
+    
+    // Running night acceleration task per world UUID
+    private final Map<UUID, Integer> accelerationTasks = new HashMap<>();
     
     /**
      * Create a new sleep listener.
@@ -41,6 +86,59 @@ public class SleepListener implements Listener {
     public SleepListener(OGEssentials plugin, AfkManager afkManager) {
         this.plugin = plugin;
         this.afkManager = afkManager;
+        
+        // Count players already online (plugin reload)
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            addPlayer(player);
+        }
+    }
+    
+    /**
+     * Start counting a player on join.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        addPlayer(event.getPlayer());
+    }
+    
+    /**
+     * Stop counting a player on quit.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        PlayerState state = playerStates.remove(event.getPlayer().getUniqueId());
+        if (state != null) {
+            uncount(state);
+        }
+    }
+    
+    /**
+     * Move a player's counts to their new world.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldChange(PlayerChangedWorldEvent event) {
+        PlayerState state = playerStates.get(event.getPlayer().getUniqueId());
+        if (state == null) {
+            return;
+        }
+        uncount(state);
+        state.worldId = event.getPlayer().getWorld().getUID();
+        state.sleeping = false;
+        count(state);
+    }
+    
+    /**
+     * Move a player between the active and AFK counts.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onAfkStatusChange(AfkStatusChangeEvent event) {
+        PlayerState state = playerStates.get(event.getPlayer().getUniqueId());
+        if (state == null || state.afk == event.isAfk()) {
+            return;
+        }
+        uncount(state);
+        state.afk = event.isAfk();
+        count(state);
     }
     
     /**
@@ -55,26 +153,36 @@ public class SleepListener implements Listener {
         
         Player player = event.getPlayer();
         World world = player.getWorld();
-        String worldName = world.getName();
+        PlayerState state = playerStates.get(player.getUniqueId());
+        if (state == null) {
+            return;
+        }
         
-        // Add player to sleeping set
-        sleepingPlayers.computeIfAbsent(worldName, k -> new HashSet<>())
-                       .add(player.getUniqueId());
+        // Count player as sleeping
+        if (!state.sleeping) {
+            state.sleeping = true;
+            counts(state.worldId).sleeping++;
+        }
         
         // Calculate counts
-        int nonAfkCount = countNonAfkPlayers(world);
-        int sleepingCount = sleepingPlayers.get(worldName).size();
+        WorldCounts counts = counts(state.worldId);
+        int nonAfkCount = counts.active;
+        int sleepingCount = counts.sleeping;
         int needed = (int) Math.ceil(nonAfkCount / 2.0);
         
         // Broadcast sleeping status
-        String prefix = getPrefix();
-        String messageColor = getMessageColor();
+        String sleeping = String.valueOf(sleepingCount);
+        String active = String.valueOf(nonAfkCount);
         
-        String message = prefix + messageColor + sleepingCount + ChatColor.GRAY + "/" + ChatColor.WHITE + 
-                         nonAfkCount + ChatColor.GRAY + " sleeping. Need " + ChatColor.YELLOW + needed + 
-                         ChatColor.GRAY + " to skip night.";
+        // Only a night can be sped up; sleeping through a daytime
+        // thunderstorm uses the normal skip threshold
+        if (isAccelerateMode() && isNight(world)) {
+            broadcastToWorld(world, Message.SLEEP_STATUS_ACCELERATE, sleeping, active);
+            startAcceleration(world);
+            return;
+        }
         
-        broadcastToWorld(world, message);
+        broadcastToWorld(world, Message.SLEEP_STATUS, sleeping, active, String.valueOf(needed));
         
         // Check if enough players are sleeping
         if (sleepingCount >= needed && needed > 0) {
@@ -89,28 +197,29 @@ public class SleepListener implements Listener {
     public void onBedLeave(PlayerBedLeaveEvent event) {
         Player player = event.getPlayer();
         World world = player.getWorld();
-        String worldName = world.getName();
         
-        // Remove player from sleeping set
-        Set<UUID> sleeping = sleepingPlayers.get(worldName);
-        if (sleeping != null) {
-            sleeping.remove(player.getUniqueId());
+        // Stop counting player as sleeping
+        PlayerState state = playerStates.get(player.getUniqueId());
+        if (state != null && state.sleeping) {
+            state.sleeping = false;
+            WorldCounts counts = counts(state.worldId);
+            counts.sleeping--;
+            if (counts.sleeping <= 0 && stopAcceleration(state.worldId) && !isNight(world)) {
+                // Vanilla woke the sleepers before the task reached morning:
+                // finish the accelerated night like a skip (weather, message)
+                skipNight(world);
+                return;
+            }
             
             // Only broadcast if it's still night and there are still players
-            if (world.getTime() >= 12541 && world.getTime() <= 23458) {
-                int nonAfkCount = countNonAfkPlayers(world);
-                int sleepingCount = sleeping.size();
+            if (isNight(world)) {
+                int nonAfkCount = counts.active;
+                int sleepingCount = counts.sleeping;
                 int needed = (int) Math.ceil(nonAfkCount / 2.0);
                 
                 if (nonAfkCount > 0) {
-                    String prefix = getPrefix();
-                    
-                    String message = prefix + ChatColor.RED + player.getName() + ChatColor.GRAY + 
-                                     " left bed. " + ChatColor.WHITE + sleepingCount + ChatColor.GRAY + 
-                                     "/" + ChatColor.WHITE + nonAfkCount + ChatColor.GRAY + 
-                                     " sleeping. Need " + ChatColor.YELLOW + needed + ChatColor.GRAY + ".";
-                    
-                    broadcastToWorld(world, message);
+                    broadcastToWorld(world, Message.SLEEP_LEFT_BED, player.getName(),
+                        String.valueOf(sleepingCount), String.valueOf(nonAfkCount), String.valueOf(needed));
                 }
             }
         }
@@ -120,11 +229,9 @@ public class SleepListener implements Listener {
      * Skip the night in a world.
      */
     private void skipNight(World world) {
-        String prefix = getPrefix();
-        String messageColor = getMessageColor();
+        stopAcceleration(world.getUID());
         
-        String message = prefix + messageColor + "Enough players are sleeping! Skipping night...";
-        broadcastToWorld(world, message);
+        broadcastToWorld(world, Message.SLEEP_SKIPPING);
         
         // Set time to day
         world.setTime(0);
@@ -134,51 +241,147 @@ public class SleepListener implements Listener {
         world.setThundering(false);
         
         // Clear sleeping players for this world
-        sleepingPlayers.remove(world.getName());
+        counts(world.getUID()).sleeping = 0;
+        for (Player player : world.getPlayers()) {
+            PlayerState state = playerStates.get(player.getUniqueId());
+            if (state != null) {
+                state.sleeping = false;
+            }
+        }
     }
     
     /**
-     * Count non-AFK players in a world.
+     * Advance the night in a world by one step (called every tick by
+     * NightAccelerationTask). Time moves faster the closer the world is to
+     * the half-sleep threshold, up to half-sleep.max-ticks-per-tick.
+     * 
+     * @param worldId The world's UUID
+     * @return false if acceleration has stopped
      */
-    private int countNonAfkPlayers(World world) {
-        int count = 0;
-        for (Player player : world.getPlayers()) {
-            if (!afkManager.isAfk(player.getUniqueId())) {
-                count++;
-            }
+    public boolean accelerateNight(UUID worldId) {
+        World world = Bukkit.getWorld(worldId);
+        WorldCounts counts = worldCounts.get(worldId);
+        if (world == null || counts == null || counts.sleeping <= 0) {
+            stopAcceleration(worldId);
+            return false;
+        }
+        
+        int needed = (int) Math.ceil(counts.active / 2.0);
+        double fraction = needed <= 0 ? 1.0 : Math.min(1.0, (double) counts.sleeping / needed);
+        int maxTicks = plugin.getSettings().halfSleepMaxTicksPerTick();
+        long ticks = Math.max(1L, Math.round(fraction * maxTicks));
+        
+        // Morning reached (vanilla wakes sleepers at WAKE_TIME): finish like a normal skip
+        if (!isNight(world) || world.getTime() + ticks >= WAKE_TIME) {
+            skipNight(world);
+            return false;
         }
-        return count;
+        
+        world.setFullTime(world.getFullTime() + ticks);
+        return true;
     }
     
     /**
-     * Broadcast a message to all players in a world.
+     * Start the acceleration task for a world if it is not running.
      */
-    private void broadcastToWorld(World world, String message) {
-        for (Player player : world.getPlayers()) {
-            player.sendMessage(message);
+    private void startAcceleration(World world) {
+        UUID worldId = world.getUID();
+        if (accelerationTasks.containsKey(worldId)) {
+            return;
+        }
+        int taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(
+            plugin, new NightAccelerationTask(this, worldId), 1L, 1L);
+        if (taskId != -1) {
+            accelerationTasks.put(worldId, taskId);
+        }
+    }
+    
+    /**
+     * Cancel the acceleration task for a world if it is running.
+     * 
+     * @return true if a task was running
+     */
+    private boolean stopAcceleration(UUID worldId) {
+        Integer taskId = accelerationTasks.remove(worldId);
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+            return true;
         }
+        return false;
+    }
+    
+    /**
+     * Check if a world's time is within the night.
+     */
+    private static boolean isNight(World world) {
+        long time = world.getTime();
+        return time >= NIGHT_START && time <= NIGHT_END;
     }
     
     /**
-     * Get the configured message prefix.
+     * Check if half-sleep speeds up the night instead of skipping it.
      */
-    private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
+    private boolean isAccelerateMode() {
+        return plugin.getSettings().halfSleepAccelerate();
+    }
+    
+    /**
+     * Start counting a player in their current world.
+     */
+    private void addPlayer(Player player) {
+        if (playerStates.containsKey(player.getUniqueId())) {
+            return;
+        }
+        PlayerState state = new PlayerState(player.getWorld().getUID(), afkManager.isAfk(player.getUniqueId()));
+        playerStates.put(player.getUniqueId(), state);
+        count(state);
+    }
+    
+    private void count(PlayerState state) {
+        WorldCounts counts = counts(state.worldId);
+        if (state.afk) {
+            counts.afk++;
+        } else {
+            counts.active++;
+        }
+        if (state.sleeping) {
+            counts.sleeping++;
+        }
+    }
+    
+    private void uncount(PlayerState state) {
+        WorldCounts counts = counts(state.worldId);
+        if (state.afk) {
+            counts.afk--;
+        } else {
+            counts.active--;
+        }
+        if (state.sleeping) {
+            counts.sleeping--;
+        }
+    }
+    
+    private WorldCounts counts(UUID worldId) {
+        return worldCounts.computeIfAbsent(worldId, k -> new WorldCounts());
     }
     
     /**
-     * Get the configured message color.
+     * Broadcast a prefixed message to all players in a world, formatted
+     * once per locale and shared by every recipient.
      */
-    private String getMessageColor() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("afk.message-color", "&a"));
+    private void broadcastToWorld(World world, Message message, String... args) {
+        plugin.getMessages().broadcast(world.getPlayers(), message, args);
     }
     
     /**
      * Clean up sleeping data.
      */
     public void cleanup() {
-        sleepingPlayers.clear();
+        for (int taskId : accelerationTasks.values()) {
+            Bukkit.getScheduler().cancelTask(taskId);
+        }
+        accelerationTasks.clear();
+        worldCounts.clear();
+        playerStates.clear();
     }
 }
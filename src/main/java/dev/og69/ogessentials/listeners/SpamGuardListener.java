@@ -0,0 +1,75 @@
+package dev.og69.ogessentials.listeners;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.managers.SpamGuard;
+import dev.og69.ogessentials.text.Message;
+import io.papermc.paper.event.player.AsyncChatEvent;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Drops chat messages and commands that SpamGuard rejects, before any
+ * other listener sees them. The bypass permission is read from the flag
+ * PermissionManager compiles, not checked per message.
+ */
+public class SpamGuardListener implements Listener {
+
+    private static final PlainTextComponentSerializer PLAIN = PlainTextComponentSerializer.plainText();
+
+    private final OGEssentials plugin;
+    private final SpamGuard spamGuard;
+
+    public SpamGuardListener(OGEssentials plugin, SpamGuard spamGuard) {
+        this.plugin = plugin;
+        this.spamGuard = spamGuard;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onPlayerChat(AsyncChatEvent event) {
+        Player player = event.getPlayer();
+        if (plugin.getPermissionManager().canBypassSpamGuard(player.getUniqueId())) {
+            return;
+        }
+
+        SpamGuard.Verdict verdict = spamGuard.checkChat(player.getUniqueId(), PLAIN.serialize(event.message()));
+        if (verdict != SpamGuard.Verdict.ALLOW) {
+            event.setCancelled(true);
+            notify(player, verdict);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        Player player = event.getPlayer();
+        if (plugin.getPermissionManager().canBypassSpamGuard(player.getUniqueId())) {
+            return;
+        }
+
+        SpamGuard.Verdict verdict = spamGuard.checkCommand(player.getUniqueId(), event.getMessage());
+        if (verdict != SpamGuard.Verdict.ALLOW) {
+            event.setCancelled(true);
+            notify(player, verdict);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        spamGuard.cleanupPlayer(event.getPlayer().getUniqueId());
+    }
+
+    private void notify(Player player, SpamGuard.Verdict verdict) {
+        switch (verdict) {
+            case RATE_LIMITED -> plugin.getMessages().send(player, Message.SPAM_RATE_LIMITED);
+            case DUPLICATE -> plugin.getMessages().send(player, Message.SPAM_DUPLICATE);
+            case MUTE_STARTED, MUTED -> plugin.getMessages().send(player, Message.SPAM_MUTED,
+                String.valueOf(spamGuard.getMuteSecondsLeft(player.getUniqueId())));
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package dev.og69.ogessentials.managers;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Slot-indexed activity table for online players.
+ *
+ * Each online player is assigned a small integer slot on join. Last activity
+ * times and last recorded look angles are kept in primitive arrays indexed by
+ * that slot, so updating activity on the movement hot path does not box or
+ * allocate. Slots are recycled when players quit.
+ *
+ * Writes happen on the main thread only.
+ */
+public class ActivityTable {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Player UUID -> slot index
+    private final Map<UUID, Integer> slots = new ConcurrentHashMap<>();
+
+    private UUID[] owners = new UUID[INITIAL_CAPACITY];
+    private long[] lastActivity = new long[INITIAL_CAPACITY];
+    private float[] lastYaw = new float[INITIAL_CAPACITY];
+    private float[] lastPitch = new float[INITIAL_CAPACITY];
+
+    // Released slots available for reuse
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+
+    // Slots [0, highWaterMark) have been handed out at least once
+    private int highWaterMark = 0;
+
+    /**
+     * Assign a slot to a player, reusing a released slot if possible.
+     *
+     * @param playerId The player's UUID
+     * @return The player's slot
+     */
+    public int assign(UUID playerId) {
+        Integer existing = slots.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWaterMark == owners.length) {
+                grow();
+            }
+            slot = highWaterMark++;
+        }
+
+        owners[slot] = playerId;
+        lastActivity[slot] = 0L;
+        lastYaw[slot] = 0f;
+        lastPitch[slot] = 0f;
+        slots.put(playerId, slot);
+        return slot;
+    }
+
+    /**
+     * Release a player's slot (called on quit).
+     *
+     * @param playerId The player's UUID
+     */
+    public void release(UUID playerId) {
+        Integer slot = slots.remove(playerId);
+        if (slot == null) {
+            return;
+        }
+        owners[slot] = null;
+        lastActivity[slot] = 0L;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    /**
+     * Get a player's slot.
+     *
+     * @param playerId The player's UUID
+     * @return The slot, or -1 if the player has none
+     */
+    public int slotOf(UUID playerId) {
+        Integer slot = slots.get(playerId);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Get the player occupying a slot.
+     *
+     * @param slot The slot
+     * @return The player's UUID, or null if the slot is free
+     */
+    public UUID owner(int slot) {
+        return owners[slot];
+    }
+
+    /**
+     * Get the last activity time in a slot.
+     */
+    public long getLastActivity(int slot) {
+        return lastActivity[slot];
+    }
+
+    /**
+     * Set the last activity time in a slot.
+     */
+    public void setLastActivity(int slot, long time) {
+        lastActivity[slot] = time;
+    }
+
+    /**
+     * Check whether a look direction differs from the last recorded one
+     * by more than the threshold on either axis.
+     *
+     * @param slot The player's slot
+     * @param yaw The new yaw
+     * @param pitch The new pitch
+     * @param threshold The threshold in degrees (0 or less disables)
+     * @return true if the head turned far enough to count as activity
+     */
+    public boolean turnedHead(int slot, float yaw, float pitch, float threshold) {
+        if (threshold <= 0f) {
+            return false;
+        }
+        float yawDelta = Math.abs(yaw - lastYaw[slot]) % 360f;
+        if (yawDelta > 180f) {
+            yawDelta = 360f - yawDelta;
+        }
+        return yawDelta > threshold || Math.abs(pitch - lastPitch[slot]) > threshold;
+    }
+
+    /**
+     * Record the look direction at the time of an activity update.
+     */
+    public void setLook(int slot, float yaw, float pitch) {
+        lastYaw[slot] = yaw;
+        lastPitch[slot] = pitch;
+    }
+
+    /**
+     * Get the number of slots ever handed out (upper bound for iteration).
+     */
+    public int highWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Clear all slots.
+     */
+    public void clear() {
+        slots.clear();
+        Arrays.fill(owners, null);
+        Arrays.fill(lastActivity, 0L);
+        freeCount = 0;
+        highWaterMark = 0;
+    }
+
+    private void grow() {
+        int capacity = owners.length * 2;
+        owners = Arrays.copyOf(owners, capacity);
+        lastActivity = Arrays.copyOf(lastActivity, capacity);
+        lastYaw = Arrays.copyOf(lastYaw, capacity);
+        lastPitch = Arrays.copyOf(lastPitch, capacity);
+    }
+}
@@ -0,0 +1,176 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import dev.og69.ogessentials.text.ComponentCache;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Frees player slots held by AFK players when the server is busy.
+ *
+ * AFK players are kept in an idle index ordered by the time they went idle,
+ * so the longest-idle player is always the first entry and picking kick
+ * candidates never requires sorting. AfkManager reports every AFK status
+ * change. Players with ogessentials.afk.kickexempt are never kicked.
+ *
+ * Main thread only.
+ */
+public class AfkCapacityManager {
+
+    public static final String BYPASS_PERMISSION = "ogessentials.afk.kickexempt";
+
+    private record IdleEntry(long idleSince, UUID playerId) {}
+
+    private static final Comparator<IdleEntry> LONGEST_IDLE_FIRST =
+        Comparator.comparingLong(IdleEntry::idleSince).thenComparing(IdleEntry::playerId);
+
+    private final OGEssentials plugin;
+
+    // AFK players ordered by idle time, longest first
+    private final NavigableSet<IdleEntry> idleIndex = new TreeSet<>(LONGEST_IDLE_FIRST);
+    private final Map<UUID, IdleEntry> entries = new HashMap<>();
+
+    private boolean enabled;
+    private int thresholdPercent;
+    private boolean kickWhenFull;
+    private Component kickMessage;
+
+    // Players kicked since startup
+    private long kicked = 0;
+
+    /**
+     * Create a new AFK capacity manager.
+     *
+     * @param plugin The plugin instance
+     */
+    public AfkCapacityManager(OGEssentials plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Pick up capacity settings from the current settings snapshot.
+     */
+    public void reload() {
+        Settings.AfkCapacity capacity = plugin.getSettings().afkCapacity();
+        enabled = capacity.enabled();
+        thresholdPercent = capacity.thresholdPercent();
+        kickWhenFull = capacity.kickWhenFull();
+        kickMessage = ComponentCache.parse(capacity.kickMessage());
+    }
+
+    /**
+     * Record an AFK status change (called by AfkManager).
+     *
+     * @param playerId The player's UUID
+     * @param afk true if the player is now AFK
+     * @param idleSince When the player stopped being active
+     */
+    public void onAfkChange(UUID playerId, boolean afk, long idleSince) {
+        IdleEntry previous = entries.remove(playerId);
+        if (previous != null) {
+            idleIndex.remove(previous);
+        }
+        if (afk) {
+            IdleEntry entry = new IdleEntry(idleSince, playerId);
+            entries.put(playerId, entry);
+            idleIndex.add(entry);
+        }
+    }
+
+    /**
+     * Kick longest-idle AFK players until the online count is back at or
+     * below the configured threshold (called every second by AfkCheckTask).
+     */
+    public void enforce() {
+        if (!enabled) {
+            return;
+        }
+        int excess = Bukkit.getOnlinePlayers().size() - getThreshold();
+        if (excess > 0) {
+            kickLongestIdle(excess);
+        }
+    }
+
+    /**
+     * Make room for a player who is being refused because the server is full.
+     *
+     * @return true if an AFK player was kicked to free a slot
+     */
+    public boolean makeRoom() {
+        return enabled && kickWhenFull && kickLongestIdle(1) > 0;
+    }
+
+    /**
+     * Get the number of AFK players currently in the idle index.
+     */
+    public int getAfkCount() {
+        return entries.size();
+    }
+
+    /**
+     * Get the online count above which AFK players are kicked.
+     */
+    public int getThreshold() {
+        return Math.max(1, Bukkit.getMaxPlayers() * thresholdPercent / 100);
+    }
+
+    /**
+     * Get the number of players kicked since startup.
+     */
+    public long getKicked() {
+        return kicked;
+    }
+
+    /**
+     * Check if capacity management is enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Kick up to {@code count} AFK players, longest idle first.
+     *
+     * @return The number of players kicked
+     */
+    private int kickLongestIdle(int count) {
+        int removed = 0;
+        IdleEntry entry = idleIndex.isEmpty() ? null : idleIndex.first();
+        while (entry != null && removed < count) {
+            IdleEntry next = idleIndex.higher(entry);
+            Player player = Bukkit.getPlayer(entry.playerId());
+            if (player == null) {
+                // Left without a quit event reaching AfkManager
+                idleIndex.remove(entry);
+                entries.remove(entry.playerId());
+            } else if (!player.hasPermission(BYPASS_PERMISSION)) {
+                idleIndex.remove(entry);
+                entries.remove(entry.playerId());
+                player.kick(kickMessage);
+                kicked++;
+                removed++;
+                plugin.getLogger().info("Kicked AFK player " + player.getName() + " to free a slot.");
+            }
+            entry = next;
+        }
+        return removed;
+    }
+
+    /**
+     * Clear all data (called on plugin disable).
+     */
+    public void cleanup() {
+        idleIndex.clear();
+        entries.clear();
+    }
+}
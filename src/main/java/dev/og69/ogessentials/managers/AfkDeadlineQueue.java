@@ -0,0 +1,176 @@
+package dev.og69.ogessentials.managers;
+
+import java.util.Arrays;
+
+/**
+ * Indexed binary min-heap of AFK deadlines keyed by activity slot.
+ *
+ * Each non-AFK player has at most one armed deadline. Activity does not
+ * touch the heap; when a deadline comes due the owner re-checks the real
+ * last activity time and re-arms lazily if the player was active since.
+ * Only players whose deadline has passed are ever looked at.
+ *
+ * Main thread only.
+ */
+public class AfkDeadlineQueue {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Heap of slots ordered by deadline
+    private int[] heap = new int[INITIAL_CAPACITY];
+    private int size = 0;
+
+    // Per slot: heap index (-1 if not armed) and deadline
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+
+    public AfkDeadlineQueue() {
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Arm or re-arm the deadline for a slot.
+     *
+     * @param slot The activity slot
+     * @param deadline The time at which the slot should be checked
+     */
+    public void arm(int slot, long deadline) {
+        ensureSlot(slot);
+        int index = positions[slot];
+        if (index < 0) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            index = size++;
+            heap[index] = slot;
+            positions[slot] = index;
+            deadlines[slot] = deadline;
+            siftUp(index);
+        } else {
+            long previous = deadlines[slot];
+            deadlines[slot] = deadline;
+            if (deadline < previous) {
+                siftUp(index);
+            } else {
+                siftDown(index);
+            }
+        }
+    }
+
+    /**
+     * Disarm a slot's deadline if it is armed.
+     *
+     * @param slot The activity slot
+     */
+    public void remove(int slot) {
+        if (slot >= positions.length) {
+            return;
+        }
+        int index = positions[slot];
+        if (index < 0) {
+            return;
+        }
+        positions[slot] = -1;
+        size--;
+        if (index != size) {
+            int last = heap[size];
+            heap[index] = last;
+            positions[last] = index;
+            siftDown(index);
+            siftUp(positions[last]);
+        }
+    }
+
+    /**
+     * Check if a slot has an armed deadline.
+     */
+    public boolean isArmed(int slot) {
+        return slot < positions.length && positions[slot] >= 0;
+    }
+
+    /**
+     * Check if the earliest deadline has passed.
+     *
+     * @param now The current time
+     * @return true if at least one deadline is due
+     */
+    public boolean hasDue(long now) {
+        return size > 0 && deadlines[heap[0]] <= now;
+    }
+
+    /**
+     * Remove and return the slot with the earliest deadline.
+     * Only call when {@link #hasDue(long)} or the queue is non-empty.
+     *
+     * @return The slot
+     */
+    public int poll() {
+        int slot = heap[0];
+        remove(slot);
+        return slot;
+    }
+
+    /**
+     * Disarm every slot.
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void ensureSlot(int slot) {
+        if (slot < positions.length) {
+            return;
+        }
+        int capacity = positions.length;
+        while (capacity <= slot) {
+            capacity *= 2;
+        }
+        int oldLength = positions.length;
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, oldLength, capacity, -1);
+        deadlines = Arrays.copyOf(deadlines, capacity);
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        long deadline = deadlines[slot];
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            int parent = heap[parentIndex];
+            if (deadlines[parent] <= deadline) {
+                break;
+            }
+            heap[index] = parent;
+            positions[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = slot;
+        positions[slot] = index;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        long deadline = deadlines[slot];
+        int half = size >>> 1;
+        while (index < half) {
+            int childIndex = 2 * index + 1;
+            int child = heap[childIndex];
+            int rightIndex = childIndex + 1;
+            if (rightIndex < size && deadlines[heap[rightIndex]] < deadlines[child]) {
+                childIndex = rightIndex;
+                child = heap[childIndex];
+            }
+            if (deadline <= deadlines[child]) {
+                break;
+            }
+            heap[index] = child;
+            positions[child] = index;
+            index = childIndex;
+        }
+        heap[index] = slot;
+        positions[slot] = index;
+    }
+}
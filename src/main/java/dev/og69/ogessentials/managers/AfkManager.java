@@ -1,15 +1,25 @@
 package dev.og69.ogessentials.managers;
 
 import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import dev.og69.ogessentials.events.AfkStatusChangeEvent;
+import dev.og69.ogessentials.storage.AfkStateStore;
+import dev.og69.ogessentials.text.Message;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Manages AFK (Away From Keyboard) status for players.
@@ -23,15 +33,60 @@ public class AfkManager {
     private static final int AFK_TAG_PRIORITY = 100;
     private static final String AFK_TAG_ID = "afk";
     
+    /**
+     * Player actions that can be configured to count as activity.
+     */
+    public enum ActivitySource {
+        CHAT("chat"),
+        COMMAND("commands"),
+        INTERACT("interact"),
+        ITEM_HELD("item-held"),
+        HEAD_ROTATION("head-rotation");
+        
+        private final String configKey;
+        
+        ActivitySource(String configKey) {
+            this.configKey = configKey;
+        }
+    }
+    
     private final OGEssentials plugin;
     private final NameTagManager nameTagManager;
     
-    // Track last activity time per player
-    private final Map<UUID, Long> lastActivity = new ConcurrentHashMap<>();
+    // Track last activity time per player (slot-indexed primitive arrays)
+    private final ActivityTable activity = new ActivityTable();
     
     // Track which players are currently AFK
     private final Set<UUID> afkPlayers = ConcurrentHashMap.newKeySet();
     
+    // Tick clock: wall time cached once per tick by ActivityClockTask
+    private volatile long clock = System.currentTimeMillis();
+    
+    // Head rotation (degrees) that counts as activity
+    private float lookThreshold;
+    
+    // Pending AFK deadlines for non-AFK players, earliest first
+    private final AfkDeadlineQueue deadlines = new AfkDeadlineQueue();
+    
+    // Inactivity timeout in milliseconds
+    private long timeoutMillis;
+    
+    // Scores movement so water streams and minecart loops do not count as activity
+    private final MovementPatternDetector movementDetector = new MovementPatternDetector();
+    private boolean machineDetection;
+    
+    // Actions besides movement that count as activity
+    private volatile Set<ActivitySource> activitySources = EnumSet.allOf(ActivitySource.class);
+    
+    // Activity reported from async threads, drained on the next tick (0 = none)
+    private final Map<UUID, AtomicLong> pendingActivity = new ConcurrentHashMap<>();
+    private final AtomicBoolean pendingDirty = new AtomicBoolean(false);
+    
+    // AFK state saved on the last shutdown, consumed as players join until restoreUntil
+    private final AfkStateStore stateStore;
+    private final Map<UUID, AfkStateStore.Entry> restoredState = new HashMap<>();
+    private long restoreUntil;
+    
     /**
      * Create a new AFK manager.
      * 
@@ -41,6 +96,163 @@ public class AfkManager {
     public AfkManager(OGEssentials plugin, NameTagManager nameTagManager) {
         this.plugin = plugin;
         this.nameTagManager = nameTagManager;
+        this.stateStore = new AfkStateStore(plugin);
+        reload();
+        
+        if (plugin.getSettings().afkTracking().persistState()) {
+            restoredState.putAll(stateStore.load());
+            
+            // Saved state only describes players rejoining after the restart;
+            // anyone joining later starts fresh
+            restoreUntil = System.currentTimeMillis() + timeoutMillis;
+        }
+    }
+    
+    /**
+     * Pick up AFK settings from the current settings snapshot.
+     */
+    public void reload() {
+        Settings settings = plugin.getSettings();
+        Settings.AfkTracking tracking = settings.afkTracking();
+        lookThreshold = (float) tracking.lookThreshold();
+        timeoutMillis = settings.afkTimeoutSeconds() * 1000L;
+        machineDetection = tracking.machineDetection();
+        Set<ActivitySource> sources = EnumSet.noneOf(ActivitySource.class);
+        for (ActivitySource source : ActivitySource.values()) {
+            if (tracking.activitySources().getOrDefault(source.configKey, true)) {
+                sources.add(source);
+            }
+        }
+        activitySources = sources;
+        movementDetector.configure(
+            tracking.minSamples(),
+            tracking.maxEntropy(),
+            tracking.minPeriodicity(),
+            tracking.minRevisits()
+        );
+        
+        // Re-arm existing deadlines against the new timeout
+        for (int slot = 0; slot < activity.highWaterMark(); slot++) {
+            UUID owner = activity.owner(slot);
+            if (owner != null && !afkPlayers.contains(owner)) {
+                deadlines.arm(slot, activity.getLastActivity(slot) + timeoutMillis);
+            }
+        }
+    }
+    
+    /**
+     * Advance the tick clock (called every tick by ActivityClockTask).
+     */
+    public void tickClock() {
+        clock = System.currentTimeMillis();
+    }
+    
+    /**
+     * Check if an action is configured to count as activity.
+     * 
+     * @param source The kind of action
+     * @return true if it resets the AFK timer
+     */
+    public boolean countsAsActivity(ActivitySource source) {
+        return activitySources.contains(source);
+    }
+    
+    /**
+     * Record activity from any thread without blocking or scheduling.
+     * The timestamp is stored per player and applied on the main thread
+     * by {@link #drainPendingActivity()} on the next tick.
+     * 
+     * @param playerId The player's UUID
+     */
+    public void recordAsyncActivity(UUID playerId) {
+        AtomicLong pending = pendingActivity.get(playerId);
+        if (pending != null) {
+            pending.set(clock);
+            pendingDirty.set(true);
+        }
+    }
+    
+    /**
+     * Apply activity recorded by {@link #recordAsyncActivity(UUID)}
+     * (called every tick by ActivityClockTask).
+     */
+    public void drainPendingActivity() {
+        if (!pendingDirty.getAndSet(false)) {
+            return;
+        }
+        
+        for (Map.Entry<UUID, AtomicLong> entry : pendingActivity.entrySet()) {
+            if (entry.getValue().getAndSet(0L) == 0L) {
+                continue;
+            }
+            int slot = activity.slotOf(entry.getKey());
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (slot >= 0 && player != null) {
+                touch(player, slot);
+            }
+        }
+    }
+    
+    /**
+     * Handle a movement packet from the PlayerMoveEvent hot path.
+     * Activity is only recorded when the player crosses a block boundary
+     * or turns their head beyond the configured threshold.
+     * 
+     * @param player The player who moved
+     * @param from The previous location
+     * @param to The new location
+     */
+    public void handleMovement(Player player, Location from, Location to) {
+        int slot = activity.slotOf(player.getUniqueId());
+        if (slot < 0) {
+            return;
+        }
+        
+        boolean crossedBlock = from.getBlockX() != to.getBlockX()
+            || from.getBlockY() != to.getBlockY()
+            || from.getBlockZ() != to.getBlockZ();
+        boolean turnedHead = activitySources.contains(ActivitySource.HEAD_ROTATION)
+            && activity.turnedHead(slot, to.getYaw(), to.getPitch(), lookThreshold);
+        if (!crossedBlock && !turnedHead) {
+            return;
+        }
+        
+        // Mechanical movement (water streams, minecart loops) is not activity
+        if (machineDetection && crossedBlock) {
+            movementDetector.record(slot,
+                to.getBlockX(), to.getBlockY(), to.getBlockZ(),
+                to.getBlockX() - from.getBlockX(),
+                to.getBlockY() - from.getBlockY(),
+                to.getBlockZ() - from.getBlockZ(),
+                to.getYaw(), to.getPitch(), inputType(player));
+            if (!turnedHead && movementDetector.isMechanical(slot)) {
+                return;
+            }
+        }
+        
+        activity.setLook(slot, to.getYaw(), to.getPitch());
+        touch(player, slot);
+    }
+    
+    private static int inputType(Player player) {
+        if (player.isInsideVehicle()) {
+            return MovementPatternDetector.INPUT_VEHICLE;
+        }
+        if (player.isInWater()) {
+            return MovementPatternDetector.INPUT_WATER;
+        }
+        return MovementPatternDetector.INPUT_FOOT;
+    }
+    
+    /**
+     * Get a player's movement pattern scores for the staff debug view.
+     * 
+     * @param playerId The player's UUID
+     * @return The scores, or null if the player is not tracked
+     */
+    public MovementPatternDetector.PatternStats getMovementStats(UUID playerId) {
+        int slot = activity.slotOf(playerId);
+        return slot >= 0 ? movementDetector.snapshot(slot) : null;
     }
     
     /**
@@ -50,12 +262,54 @@ public class AfkManager {
      * @param player The player who performed an action
      */
     public void updateActivity(Player player) {
-        UUID playerId = player.getUniqueId();
-        lastActivity.put(playerId, System.currentTimeMillis());
+        int slot = activity.slotOf(player.getUniqueId());
+        if (slot >= 0) {
+            touch(player, slot);
+        }
+    }
+    
+    private void touch(Player player, int slot) {
+        activity.setLastActivity(slot, clock);
         
         // If player was AFK, mark them as no longer AFK
-        if (afkPlayers.contains(playerId)) {
+        if (afkPlayers.contains(player.getUniqueId())) {
             setAfk(player, false);
+        } else if (!deadlines.isArmed(slot)) {
+            deadlines.arm(slot, clock + timeoutMillis);
+        }
+    }
+    
+    /**
+     * Mark players whose inactivity deadline has passed as AFK.
+     * 
+     * A due deadline is checked against the player's real last activity:
+     * if they were active since it was armed, it is simply re-armed at
+     * their new deadline. Players that are not due are never visited.
+     * 
+     * @param now The current time in milliseconds
+     */
+    public void processExpired(long now) {
+        if (!restoredState.isEmpty() && now > restoreUntil) {
+            restoredState.clear();
+        }
+        
+        while (deadlines.hasDue(now)) {
+            int slot = deadlines.poll();
+            UUID owner = activity.owner(slot);
+            if (owner == null || afkPlayers.contains(owner)) {
+                continue;
+            }
+            
+            long deadline = activity.getLastActivity(slot) + timeoutMillis;
+            if (deadline > now) {
+                deadlines.arm(slot, deadline);
+                continue;
+            }
+            
+            Player player = Bukkit.getPlayer(owner);
+            if (player != null) {
+                setAfk(player, true);
+            }
         }
     }
     
@@ -65,8 +319,23 @@ public class AfkManager {
      * @param player The player who joined
      */
     public void initializePlayer(Player player) {
-        lastActivity.put(player.getUniqueId(), System.currentTimeMillis());
+        int slot = activity.assign(player.getUniqueId());
+        movementDetector.reset(slot);
+        pendingActivity.put(player.getUniqueId(), new AtomicLong());
+        long now = System.currentTimeMillis();
+        Location location = player.getLocation();
+        activity.setLook(slot, location.getYaw(), location.getPitch());
         nameTagManager.initializePlayer(player);
+        
+        // Carry idle time and AFK status over a restart or reload
+        AfkStateStore.Entry saved = now <= restoreUntil ? restoredState.remove(player.getUniqueId()) : null;
+        long lastActivity = saved != null ? now - saved.idleMillis() : now;
+        activity.setLastActivity(slot, lastActivity);
+        if (saved != null && saved.afk()) {
+            applyAfk(player, true, false);
+        } else {
+            deadlines.arm(slot, lastActivity + timeoutMillis);
+        }
     }
     
     /**
@@ -76,8 +345,15 @@ public class AfkManager {
      */
     public void cleanupPlayer(Player player) {
         UUID playerId = player.getUniqueId();
-        lastActivity.remove(playerId);
-        afkPlayers.remove(playerId);
+        int slot = activity.slotOf(playerId);
+        if (slot >= 0) {
+            deadlines.remove(slot);
+        }
+        pendingActivity.remove(playerId);
+        activity.release(playerId);
+        if (afkPlayers.remove(playerId)) {
+            notifyCapacity(playerId, false, 0L);
+        }
         nameTagManager.cleanupPlayer(player);
     }
     
@@ -98,32 +374,76 @@ public class AfkManager {
      * @return The timestamp of last activity, or 0 if not tracked
      */
     public long getLastActivity(UUID playerId) {
-        return lastActivity.getOrDefault(playerId, 0L);
+        int slot = activity.slotOf(playerId);
+        return slot >= 0 ? activity.getLastActivity(slot) : 0L;
     }
     
     /**
      * Set a player's AFK status.
+     * Fires an {@link AfkStatusChangeEvent} if the status changed.
      * 
      * @param player The player
      * @param afk true to mark as AFK, false to mark as active
      */
     public void setAfk(Player player, boolean afk) {
+        applyAfk(player, afk, true);
+    }
+    
+    private void applyAfk(Player player, boolean afk, boolean broadcast) {
         UUID playerId = player.getUniqueId();
         
         if (afk && !afkPlayers.contains(playerId)) {
             // Mark as AFK
             afkPlayers.add(playerId);
+            int slot = activity.slotOf(playerId);
+            long idleSince = clock;
+            if (slot >= 0) {
+                deadlines.remove(slot);
+                long lastActivity = activity.getLastActivity(slot);
+                if (lastActivity > 0) {
+                    idleSince = lastActivity;
+                }
+            }
+            notifyCapacity(playerId, true, idleSince);
             nameTagManager.setTag(player, AFK_TAG_ID, 
                 ChatColor.GRAY + "[AFK] " + ChatColor.RESET, "", AFK_TAG_PRIORITY);
-            broadcastAfkMessage(player, true);
+            if (broadcast) {
+                broadcastAfkMessage(player, true);
+            }
+            Bukkit.getPluginManager().callEvent(new AfkStatusChangeEvent(player, true));
         } else if (!afk && afkPlayers.contains(playerId)) {
             // Mark as no longer AFK
             afkPlayers.remove(playerId);
+            int slot = activity.slotOf(playerId);
+            if (slot >= 0) {
+                activity.setLastActivity(slot, clock);
+                deadlines.arm(slot, clock + timeoutMillis);
+            }
+            notifyCapacity(playerId, false, 0L);
             nameTagManager.removeTag(player, AFK_TAG_ID);
-            broadcastAfkMessage(player, false);
+            if (broadcast) {
+                broadcastAfkMessage(player, false);
+            }
+            Bukkit.getPluginManager().callEvent(new AfkStatusChangeEvent(player, false));
         }
     }
     
+    private void notifyCapacity(UUID playerId, boolean afk, long idleSince) {
+        AfkCapacityManager capacityManager = plugin.getAfkCapacityManager();
+        if (capacityManager != null) {
+            capacityManager.onAfkChange(playerId, afk, idleSince);
+        }
+    }
+    
+    /**
+     * Get the number of players currently AFK.
+     * 
+     * @return The AFK player count
+     */
+    public int getAfkCount() {
+        return afkPlayers.size();
+    }
+    
     /**
      * Toggle a player's AFK status (for manual /afk command).
      * 
@@ -134,8 +454,9 @@ public class AfkManager {
         setAfk(player, !isCurrentlyAfk);
         
         // Reset activity time if manually going AFK
-        if (!isCurrentlyAfk) {
-            lastActivity.put(player.getUniqueId(), 0L);
+        int slot = activity.slotOf(player.getUniqueId());
+        if (!isCurrentlyAfk && slot >= 0) {
+            activity.setLastActivity(slot, 0L);
         }
     }
     
@@ -146,19 +467,7 @@ public class AfkManager {
      * @param isAfk true if the player is now AFK
      */
     private void broadcastAfkMessage(Player player, boolean isAfk) {
-        String prefix = ChatColor.translateAlternateColorCodes('&', 
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
-        String messageColor = ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("afk.message-color", "&a"));
-        
-        String message;
-        if (isAfk) {
-            message = prefix + ChatColor.YELLOW + player.getName() + ChatColor.GRAY + " is now AFK.";
-        } else {
-            message = prefix + messageColor + player.getName() + ChatColor.GRAY + " is no longer AFK.";
-        }
-        
-        Bukkit.broadcastMessage(message);
+        plugin.getMessages().broadcast(isAfk ? Message.AFK_NOW : Message.AFK_RETURNED, player.getName());
     }
     
     /**
@@ -167,14 +476,19 @@ public class AfkManager {
      * @return The timeout in milliseconds
      */
     public long getAfkTimeoutMillis() {
-        int timeoutSeconds = plugin.getConfig().getInt("afk.timeout", 300);
-        return timeoutSeconds * 1000L;
+        return timeoutMillis;
     }
     
     /**
      * Clean up all data (called on plugin disable).
      */
     public void cleanup() {
+        // Snapshot state so it survives the restart or reload
+        if (plugin.getSettings().afkTracking().persistState()) {
+            saveState();
+        }
+        restoredState.clear();
+        
         // Reset all player names
         for (UUID playerId : afkPlayers) {
             Player player = Bukkit.getPlayer(playerId);
@@ -183,7 +497,28 @@ public class AfkManager {
             }
         }
         
-        lastActivity.clear();
+        deadlines.clear();
+        movementDetector.clear();
+        pendingActivity.clear();
+        activity.clear();
         afkPlayers.clear();
     }
+    
+    /**
+     * Write idle time and AFK status of every tracked player to disk.
+     */
+    private void saveState() {
+        long now = System.currentTimeMillis();
+        List<AfkStateStore.Entry> entries = new ArrayList<>();
+        for (int slot = 0; slot < activity.highWaterMark(); slot++) {
+            UUID owner = activity.owner(slot);
+            if (owner == null) {
+                continue;
+            }
+            long lastActivity = activity.getLastActivity(slot);
+            long idleMillis = lastActivity > 0 ? Math.max(0L, now - lastActivity) : 0L;
+            entries.add(new AfkStateStore.Entry(owner, idleMillis, afkPlayers.contains(owner)));
+        }
+        stateStore.save(entries);
+    }
 }
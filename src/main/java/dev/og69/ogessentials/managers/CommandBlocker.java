@@ -0,0 +1,387 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.PluginIdentifiableCommand;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permissible;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled command-blocker rules.
+ *
+ * Rules from command-blocker.blocked-commands (and the per-world lists in
+ * command-blocker.worlds) are compiled on reload into a hash set of exact
+ * labels plus a short list of prefixes for entries ending in '*'. The
+ * rules are published as one immutable snapshot.
+ *
+ * A typed label is checked as typed, without its namespace, and as the
+ * command it resolves to in the server CommandMap, so aliases of a blocked
+ * command are blocked too. Resolutions are cached per label until the
+ * next reload or plugin enable/disable; unknown labels are never cached.
+ *
+ * Players with ogessentials.commandblocker.bypass skip every rule, and
+ * ogessentials.commandblocker.bypass.&lt;command&gt; skips a single command.
+ *
+ * Blocked commands are also removed from the command tree sent to
+ * clients. Players who share a world rule set and the same per-command
+ * bypasses share a permission profile, and each profile caches which
+ * labels it hides, so every label is judged once per profile rather than
+ * once per player or per command tree update.
+ */
+public class CommandBlocker {
+
+    public static final String BYPASS_PERMISSION = "ogessentials.commandblocker.bypass";
+
+    /**
+     * One compiled rule list.
+     */
+    private record Rules(Set<String> exact, String[] prefixes) {
+
+        static final Rules EMPTY = new Rules(Set.of(), new String[0]);
+
+        boolean matches(String key) {
+            if (exact.contains(key)) {
+                return true;
+            }
+            for (String prefix : prefixes) {
+                if (key.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEmpty() {
+            return exact.isEmpty() && prefixes.length == 0;
+        }
+    }
+
+    /**
+     * Global rules plus per-world rules by world name (lower case).
+     */
+    private record Snapshot(Rules global, Map<String, Rules> worlds) {}
+
+    /**
+     * A label resolved to every name it can be blocked under.
+     *
+     * @param keys Typed label, label without namespace, resolved command name(s)
+     * @param name The command name used for messages and bypass permissions
+     */
+    private record Resolution(String[] keys, String name) {}
+
+    /**
+     * Players that see the same filtered command tree.
+     *
+     * @param world World name with its own rules, or "" for global rules only
+     * @param bypassed Indexes into blockedNames of the bypasses the player holds
+     */
+    private record Profile(String world, BitSet bypassed) {}
+
+    /**
+     * Names of blocked commands, sorted, with their bypass permissions.
+     */
+    private record BlockedNames(String[] names, String[] permissions) {}
+
+    private final OGEssentials plugin;
+    private volatile Snapshot snapshot = new Snapshot(Rules.EMPTY, Map.of());
+
+    // Resolved labels of known commands
+    private final Map<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    // Blocked command names, built on first use after a change
+    private volatile BlockedNames blockedNames;
+
+    // Per profile: label -> hidden from the command tree
+    private final Map<Profile, Map<String, Boolean>> hiddenLabels = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new command blocker.
+     *
+     * @param plugin The plugin instance
+     */
+    public CommandBlocker(OGEssentials plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Recompile the rules from the current settings snapshot.
+     */
+    public void reload() {
+        Settings.CommandBlockerRules config = plugin.getSettings().commandBlocker();
+        Rules global = compile(config.blockedCommands(), "blocked-commands");
+
+        Map<String, Rules> worlds = new HashMap<>();
+        for (Map.Entry<String, List<String>> world : config.worlds().entrySet()) {
+            Rules rules = compile(world.getValue(), "worlds." + world.getKey());
+            if (!rules.isEmpty()) {
+                worlds.put(world.getKey().toLowerCase(Locale.ROOT), rules);
+            }
+        }
+
+        snapshot = new Snapshot(global, Map.copyOf(worlds));
+        clearResolutions();
+
+        // Resend command trees so clients drop or regain commands
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            player.updateCommands();
+        }
+    }
+
+    /**
+     * Forget resolved aliases (called when plugins register or remove commands).
+     */
+    public void clearResolutions() {
+        resolutions.clear();
+        blockedNames = null;
+        hiddenLabels.clear();
+    }
+
+    /**
+     * Check if any rules apply in a world besides the global ones.
+     *
+     * @param worldName The world name
+     * @return true if the world has its own rules
+     */
+    public boolean hasWorldRules(String worldName) {
+        Map<String, Rules> worlds = snapshot.worlds();
+        return !worlds.isEmpty() && worlds.containsKey(worldName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Remove the commands a player may not run from their command tree.
+     *
+     * @param player The player the tree is sent to
+     * @param commands The tree's labels (modified in place)
+     */
+    public void filterCommands(Player player, Collection<String> commands) {
+        Snapshot current = snapshot;
+        if ((current.global().isEmpty() && current.worlds().isEmpty()) || player.hasPermission(BYPASS_PERMISSION)) {
+            return;
+        }
+
+        String worldName = player.getWorld().getName();
+        BlockedNames names = blockedNames();
+        BitSet bypassed = new BitSet(names.names().length);
+        for (int i = 0; i < names.permissions().length; i++) {
+            if (hasCommandBypass(player, names.permissions()[i])) {
+                bypassed.set(i);
+            }
+        }
+
+        Profile profile = new Profile(hasWorldRules(worldName) ? worldName.toLowerCase(Locale.ROOT) : "", bypassed);
+        Map<String, Boolean> hidden = hiddenLabels.computeIfAbsent(profile, p -> new ConcurrentHashMap<>());
+        commands.removeIf(label -> hidden.computeIfAbsent(label,
+            l -> isHidden(l.toLowerCase(Locale.ROOT), worldName, names, bypassed)));
+    }
+
+    /**
+     * Get the number of cached command tree profiles.
+     */
+    public int getProfileCount() {
+        return hiddenLabels.size();
+    }
+
+    private boolean isHidden(String label, String worldName, BlockedNames names, BitSet bypassed) {
+        Resolution resolution = resolve(label);
+        if (!isBlocked(resolution, worldName)) {
+            return false;
+        }
+        int index = Arrays.binarySearch(names.names(), resolution.name());
+        return index < 0 || !bypassed.get(index);
+    }
+
+    /**
+     * Collect the names of every known command blocked anywhere, which are
+     * the only per-command bypasses that can change a command tree.
+     */
+    private BlockedNames blockedNames() {
+        BlockedNames names = blockedNames;
+        if (names != null) {
+            return names;
+        }
+
+        Snapshot current = snapshot;
+        Set<String> blocked = new TreeSet<>();
+        addExact(current.global(), blocked);
+        for (Rules rules : current.worlds().values()) {
+            addExact(rules, blocked);
+        }
+        for (String label : Bukkit.getCommandMap().getKnownCommands().keySet()) {
+            Resolution resolution = resolve(label.toLowerCase(Locale.ROOT));
+            if (matchesAnywhere(current, resolution)) {
+                blocked.add(resolution.name());
+            }
+        }
+
+        String[] sorted = blocked.toArray(new String[0]);
+        String[] permissions = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            permissions[i] = BYPASS_PERMISSION + "." + sorted[i];
+        }
+        names = new BlockedNames(sorted, permissions);
+        blockedNames = names;
+        return names;
+    }
+
+    private static void addExact(Rules rules, Set<String> names) {
+        for (String rule : rules.exact()) {
+            names.add(stripNamespace(rule));
+        }
+    }
+
+    private static boolean matchesAnywhere(Snapshot current, Resolution resolution) {
+        for (String key : resolution.keys()) {
+            if (current.global().matches(key)) {
+                return true;
+            }
+            for (Rules rules : current.worlds().values()) {
+                if (rules.matches(key)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Check whether a player may run a command.
+     *
+     * @param player The player
+     * @param label The typed label, lower case, without the leading slash
+     * @return The blocked command's name to show the player, or null if allowed
+     */
+    public String check(Player player, String label) {
+        Resolution resolution = resolve(label);
+        if (!isBlocked(resolution, player.getWorld().getName())) {
+            return null;
+        }
+        if (player.hasPermission(BYPASS_PERMISSION)
+            || hasCommandBypass(player, BYPASS_PERMISSION + "." + resolution.name())) {
+            return null;
+        }
+        return stripNamespace(label);
+    }
+
+    /**
+     * Check a per-command bypass node. These nodes are not declared in
+     * plugin.yml, so Bukkit would grant them to every op by default; they
+     * only count when explicitly set, so ops stay blocked like everyone else.
+     *
+     * @param permissible The player
+     * @param node The per-command bypass permission
+     * @return true if the node is explicitly granted
+     */
+    static boolean hasCommandBypass(Permissible permissible, String node) {
+        return permissible.isPermissionSet(node) && permissible.hasPermission(node);
+    }
+
+    /**
+     * Check a label against the rules for a world, ignoring permissions.
+     *
+     * @param label The label, lower case, without the leading slash
+     * @param worldName The world name
+     * @return true if the label is blocked in that world
+     */
+    public boolean isBlocked(String label, String worldName) {
+        return isBlocked(resolve(label), worldName);
+    }
+
+    /**
+     * Get the command name a label is checked and bypassed under.
+     *
+     * @param label The label, lower case, without the leading slash
+     * @return The resolved command name
+     */
+    public String resolveName(String label) {
+        return resolve(label).name();
+    }
+
+    private boolean isBlocked(Resolution resolution, String worldName) {
+        Snapshot current = snapshot;
+        Rules worldRules = current.worlds().isEmpty()
+            ? null
+            : current.worlds().get(worldName.toLowerCase(Locale.ROOT));
+
+        for (String key : resolution.keys()) {
+            if (current.global().matches(key) || (worldRules != null && worldRules.matches(key))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Resolution resolve(String label) {
+        Resolution resolution = resolutions.get(label);
+        if (resolution != null) {
+            return resolution;
+        }
+
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(label);
+        String base = stripNamespace(label);
+        keys.add(base);
+
+        Command command = Bukkit.getCommandMap().getCommand(label);
+        String name = base;
+        if (command != null) {
+            name = command.getName().toLowerCase(Locale.ROOT);
+            keys.add(name);
+            if (command instanceof PluginIdentifiableCommand pluginCommand) {
+                keys.add(pluginCommand.getPlugin().getName().toLowerCase(Locale.ROOT) + ":" + name);
+            }
+        }
+
+        resolution = new Resolution(keys.toArray(new String[0]), name);
+        if (command != null) {
+            resolutions.put(label, resolution);
+        }
+        return resolution;
+    }
+
+    private static String stripNamespace(String label) {
+        int colon = label.indexOf(':');
+        return colon >= 0 ? label.substring(colon + 1) : label;
+    }
+
+    /**
+     * Compile one rule list, warning about unusable entries.
+     */
+    private Rules compile(List<String> entries, String path) {
+        Set<String> exact = new HashSet<>();
+        List<String> prefixes = new ArrayList<>();
+
+        for (String entry : entries) {
+            String rule = entry.trim().toLowerCase(Locale.ROOT);
+            if (rule.startsWith("/")) {
+                rule = rule.substring(1);
+            }
+            if (rule.isEmpty() || rule.contains(" ")) {
+                plugin.getLogger().warning("Ignoring invalid command-blocker." + path + " entry '" + entry + "'.");
+                continue;
+            }
+            if (rule.endsWith("*")) {
+                prefixes.add(rule.substring(0, rule.length() - 1));
+            } else {
+                exact.add(rule);
+            }
+        }
+        return new Rules(Set.copyOf(exact), prefixes.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,86 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.commands.Give3x3PickCommand;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches which special tool (if any) each player is holding in their main hand.
+ *
+ * Every block break on the server goes through BlockBreakListener, but only a
+ * handful are made with special tools. The cached kind is refreshed by
+ * HeldToolListener whenever the held slot or its contents change, so an
+ * ordinary block break can be rejected without touching the inventory.
+ */
+public class HeldToolCache {
+
+    /**
+     * The kinds of special tools handled by BlockBreakListener.
+     */
+    public enum SpecialTool {
+        NONE,
+        AREA_PICKAXE,
+        VEIN_MINER
+    }
+
+    // Cached held tool kind per player (absent = unknown)
+    private final Map<UUID, SpecialTool> heldTools = new ConcurrentHashMap<>();
+
+    /**
+     * Get the cached tool kind for a player.
+     *
+     * @param playerId The player's UUID
+     * @return The cached kind, or null if not known yet
+     */
+    public SpecialTool getCached(UUID playerId) {
+        return heldTools.get(playerId);
+    }
+
+    /**
+     * Identify an item and store the result as the player's held tool.
+     *
+     * @param playerId The player's UUID
+     * @param item The item now in the player's main hand
+     * @return The identified kind
+     */
+    public SpecialTool update(UUID playerId, ItemStack item) {
+        SpecialTool kind = identify(item);
+        heldTools.put(playerId, kind);
+        return kind;
+    }
+
+    /**
+     * Identify which special tool an item is.
+     *
+     * @param item The item to check
+     * @return The tool kind, NONE for ordinary items
+     */
+    public static SpecialTool identify(ItemStack item) {
+        if (Give3x3PickCommand.is3x3Pickaxe(item)) {
+            return SpecialTool.AREA_PICKAXE;
+        }
+        if (Give3x3PickCommand.isVeinMiner(item)) {
+            return SpecialTool.VEIN_MINER;
+        }
+        return SpecialTool.NONE;
+    }
+
+    /**
+     * Forget the cached tool for a player (called on quit).
+     *
+     * @param playerId The player's UUID
+     */
+    public void invalidate(UUID playerId) {
+        heldTools.remove(playerId);
+    }
+
+    /**
+     * Clear all cached data (called on plugin disable).
+     */
+    public void cleanup() {
+        heldTools.clear();
+    }
+}
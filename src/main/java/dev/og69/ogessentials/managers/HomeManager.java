@@ -236,6 +236,6 @@ public class HomeManager {
      * @return The max homes limit
      */
     public int getMaxHomes() {
-        return plugin.getConfig().getInt("homes.max-homes", 3);
+        return plugin.getSettings().maxHomes();
     }
 }
@@ -0,0 +1,444 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.storage.DatabaseManager;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records mining telemetry for the 3x3 pickaxe and Vein Miner.
+ *
+ * Counters are kept per player in LongAdders and written to the
+ * mining_stats table in periodic batches by MiningStatsFlushTask.
+ * A top-K leaderboard by blocks mined is kept up to date as blocks
+ * are recorded, so it never has to be sorted on demand.
+ *
+ * The main thread never touches the database after startup: a player's
+ * persisted totals are loaded asynchronously on first use (counting from
+ * a zero baseline meanwhile), and flushes and stats lookups run off the
+ * main thread on a dedicated connection, serialized by a lock.
+ */
+public class MiningStatsManager {
+
+    private static final int LEADERBOARD_SIZE = 10;
+
+    private final OGEssentials plugin;
+    private final DatabaseManager databaseManager;
+
+    // Dedicated connection for async work, guarded by databaseLock
+    private final Object databaseLock = new Object();
+    private Connection connection;
+
+    /**
+     * Snapshot of a player's mining totals.
+     */
+    public record MiningStats(String name, long blocks, long drops, long swings, long handlerNanos) {}
+
+    /**
+     * A leaderboard row.
+     */
+    public record LeaderboardEntry(UUID playerId, String name, long blocks) {}
+
+    /**
+     * Live counters for one player: totals already in the database plus unflushed deltas.
+     */
+    private static final class PlayerCounters {
+        volatile String name;
+        // Persisted totals loaded from the database (leaderboard waits for this)
+        volatile boolean loaded;
+        // Recorded to since the last flush (idle counters are dropped)
+        volatile boolean touched;
+        volatile long persistedBlocks;
+        volatile long persistedDrops;
+        volatile long persistedSwings;
+        volatile long persistedNanos;
+        final LongAdder blocks = new LongAdder();
+        final LongAdder drops = new LongAdder();
+        final LongAdder swings = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+
+        PlayerCounters(String name) {
+            this.name = name;
+        }
+
+        long totalBlocks() {
+            return persistedBlocks + blocks.sum();
+        }
+    }
+
+    /**
+     * Deltas read for one player at the start of a flush.
+     */
+    private record PendingFlush(UUID playerId, PlayerCounters counters,
+                                long blocks, long drops, long swings, long nanos) {
+        boolean isEmpty() {
+            return blocks == 0 && drops == 0 && swings == 0 && nanos == 0;
+        }
+    }
+
+    // Counters for players seen since the last flush
+    private final Map<UUID, PlayerCounters> counters = new ConcurrentHashMap<>();
+
+    // Leaderboard by total blocks (main thread only), highest first
+    private final UUID[] boardIds = new UUID[LEADERBOARD_SIZE];
+    private final String[] boardNames = new String[LEADERBOARD_SIZE];
+    private final long[] boardBlocks = new long[LEADERBOARD_SIZE];
+    private int boardSize = 0;
+
+    /**
+     * Create a new mining stats manager.
+     *
+     * @param plugin The plugin instance
+     * @param databaseManager The database manager
+     */
+    public MiningStatsManager(OGEssentials plugin, DatabaseManager databaseManager) {
+        this.plugin = plugin;
+        this.databaseManager = databaseManager;
+        loadLeaderboard();
+    }
+
+    /**
+     * Record one extra block broken by an area mining tool.
+     *
+     * @param player The player mining
+     * @param drops The number of items dropped by the block
+     */
+    public void recordBlock(Player player, int drops) {
+        PlayerCounters playerCounters = getCounters(player);
+        playerCounters.blocks.increment();
+        if (drops > 0) {
+            playerCounters.drops.add(drops);
+        }
+        if (playerCounters.loaded) {
+            offerLeaderboard(player.getUniqueId(), playerCounters.name, playerCounters.totalBlocks());
+        }
+    }
+
+    /**
+     * Record the time spent handling one special tool swing in BlockBreakListener.
+     *
+     * @param player The player mining
+     * @param nanos The elapsed time in nanoseconds
+     */
+    public void recordSwing(Player player, long nanos) {
+        PlayerCounters playerCounters = getCounters(player);
+        playerCounters.swings.increment();
+        playerCounters.nanos.add(nanos);
+    }
+
+    /**
+     * Look up a player's mining totals, including unflushed counters.
+     * The database is read asynchronously; the callback runs on the main thread.
+     *
+     * @param playerId The player's UUID
+     * @param callback Receives the totals, or null if the player has no recorded mining
+     */
+    public void loadStats(UUID playerId, Consumer<MiningStats> callback) {
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            MiningStats stats = readStats(playerId);
+            Bukkit.getScheduler().runTask(plugin, () -> callback.accept(stats));
+        });
+    }
+
+    private MiningStats readStats(UUID playerId) {
+        String sql = "SELECT username, blocks, drops, swings, handler_nanos FROM mining_stats WHERE uuid = ?";
+
+        synchronized (databaseLock) {
+            // Under the lock, database rows plus pending deltas are consistent
+            PlayerCounters playerCounters = counters.get(playerId);
+            MiningStats stats = null;
+            try (PreparedStatement stmt = connection().prepareStatement(sql)) {
+                stmt.setString(1, playerId.toString());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        stats = new MiningStats(rs.getString("username"), rs.getLong("blocks"),
+                            rs.getLong("drops"), rs.getLong("swings"), rs.getLong("handler_nanos"));
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to load mining stats: " + e.getMessage());
+            }
+
+            if (playerCounters == null) {
+                return stats;
+            }
+            MiningStats base = stats != null ? stats : new MiningStats(playerCounters.name, 0, 0, 0, 0);
+            return new MiningStats(
+                playerCounters.name,
+                base.blocks() + playerCounters.blocks.sum(),
+                base.drops() + playerCounters.drops.sum(),
+                base.swings() + playerCounters.swings.sum(),
+                base.handlerNanos() + playerCounters.nanos.sum()
+            );
+        }
+    }
+
+    /**
+     * Get the current leaderboard, highest first.
+     *
+     * @return A copy of the leaderboard rows
+     */
+    public List<LeaderboardEntry> getLeaderboard() {
+        List<LeaderboardEntry> entries = new ArrayList<>(boardSize);
+        for (int i = 0; i < boardSize; i++) {
+            entries.add(new LeaderboardEntry(boardIds[i], boardNames[i], boardBlocks[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * Write all pending counters to the database in one batch.
+     * Counters with nothing pending that were not recorded to since the
+     * previous flush are dropped from memory.
+     * Safe to call from any thread (MiningStatsFlushTask runs it async).
+     */
+    public void flush() {
+        synchronized (databaseLock) {
+            flushLocked();
+        }
+    }
+
+    private void flushLocked() {
+        String sql = """
+            INSERT INTO mining_stats (uuid, username, blocks, drops, swings, handler_nanos)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT(uuid) DO UPDATE SET
+                username = excluded.username,
+                blocks = blocks + excluded.blocks,
+                drops = drops + excluded.drops,
+                swings = swings + excluded.swings,
+                handler_nanos = handler_nanos + excluded.handler_nanos
+            """;
+
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        // Snapshot the deltas; they are only moved into the persisted totals
+        // once the batch is committed, so a failed flush loses nothing
+        List<PendingFlush> pending = new ArrayList<>(counters.size());
+        for (Map.Entry<UUID, PlayerCounters> entry : counters.entrySet()) {
+            PlayerCounters playerCounters = entry.getValue();
+            playerCounters.touched = false;
+            pending.add(new PendingFlush(entry.getKey(), playerCounters,
+                playerCounters.blocks.sum(), playerCounters.drops.sum(),
+                playerCounters.swings.sum(), playerCounters.nanos.sum()));
+        }
+
+        try {
+            Connection conn = connection();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (PendingFlush flush : pending) {
+                    if (flush.isEmpty()) {
+                        continue;
+                    }
+                    stmt.setString(1, flush.playerId().toString());
+                    stmt.setString(2, flush.counters().name);
+                    stmt.setLong(3, flush.blocks());
+                    stmt.setLong(4, flush.drops());
+                    stmt.setLong(5, flush.swings());
+                    stmt.setLong(6, flush.nanos());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to flush mining stats: " + e.getMessage());
+            return;
+        }
+
+        // Committed: move the written deltas into the persisted totals.
+        // Anything recorded since the snapshot stays pending.
+        for (PendingFlush flush : pending) {
+            PlayerCounters playerCounters = flush.counters();
+            playerCounters.blocks.add(-flush.blocks());
+            playerCounters.drops.add(-flush.drops());
+            playerCounters.swings.add(-flush.swings());
+            playerCounters.nanos.add(-flush.nanos());
+            playerCounters.persistedBlocks += flush.blocks();
+            playerCounters.persistedDrops += flush.drops();
+            playerCounters.persistedSwings += flush.swings();
+            playerCounters.persistedNanos += flush.nanos();
+
+            // Checked inside compute so a concurrent getCounters either
+            // marks the entry touched first or creates a fresh one after
+            counters.computeIfPresent(flush.playerId(), (id, current) ->
+                current == playerCounters && !current.touched && current.blocks.sum() == 0
+                    && current.drops.sum() == 0 && current.swings.sum() == 0
+                    && current.nanos.sum() == 0 ? null : current);
+        }
+    }
+
+    /**
+     * Get the counters for a player, creating them with a zero baseline and
+     * loading the persisted totals asynchronously on first use.
+     */
+    private PlayerCounters getCounters(Player player) {
+        PlayerCounters[] created = new PlayerCounters[1];
+        PlayerCounters playerCounters = counters.compute(player.getUniqueId(), (id, current) -> {
+            if (current == null) {
+                current = new PlayerCounters(player.getName());
+                created[0] = current;
+            }
+            current.touched = true;
+            return current;
+        });
+        if (created[0] != null) {
+            UUID playerId = player.getUniqueId();
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> loadCounters(playerId, created[0]));
+        }
+        return playerCounters;
+    }
+
+    /**
+     * Load a player's persisted totals so live totals stay correct for the
+     * leaderboard (async). The totals are assigned under the database lock,
+     * so they are right whether or not a flush ran first.
+     */
+    private void loadCounters(UUID playerId, PlayerCounters playerCounters) {
+        String sql = "SELECT blocks, drops, swings, handler_nanos FROM mining_stats WHERE uuid = ?";
+
+        synchronized (databaseLock) {
+            try (PreparedStatement stmt = connection().prepareStatement(sql)) {
+                stmt.setString(1, playerId.toString());
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        playerCounters.persistedBlocks = rs.getLong("blocks");
+                        playerCounters.persistedDrops = rs.getLong("drops");
+                        playerCounters.persistedSwings = rs.getLong("swings");
+                        playerCounters.persistedNanos = rs.getLong("handler_nanos");
+                    }
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to load mining stats for " + playerCounters.name + ": "
+                    + e.getMessage());
+            }
+            playerCounters.loaded = true;
+        }
+
+        // The leaderboard is main thread only
+        Bukkit.getScheduler().runTask(plugin, () ->
+            offerLeaderboard(playerId, playerCounters.name, playerCounters.totalBlocks()));
+    }
+
+    /**
+     * Get the dedicated connection, opening it if needed (hold databaseLock).
+     */
+    private Connection connection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            connection = databaseManager.openConnection();
+        }
+        return connection;
+    }
+
+    /**
+     * Seed the leaderboard from the database on startup.
+     */
+    private void loadLeaderboard() {
+        String sql = "SELECT uuid, username, blocks FROM mining_stats ORDER BY blocks DESC LIMIT " + LEADERBOARD_SIZE;
+
+        try {
+            Connection conn = databaseManager.getConnection();
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        offerLeaderboard(UUID.fromString(rs.getString("uuid")), rs.getString("username"),
+                            rs.getLong("blocks"));
+                    } catch (IllegalArgumentException e) {
+                        plugin.getLogger().warning("Invalid UUID in mining_stats: " + rs.getString("uuid"));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().warning("Failed to load mining leaderboard: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Update the leaderboard with a player's new total.
+     * Totals only grow, so an entry only ever moves up: O(K) per update.
+     * A lower total (read while an async flush moves deltas) is ignored.
+     */
+    private void offerLeaderboard(UUID playerId, String name, long blocks) {
+        int index = -1;
+        for (int i = 0; i < boardSize; i++) {
+            if (boardIds[i].equals(playerId)) {
+                index = i;
+                break;
+            }
+        }
+        if (index >= 0 && blocks < boardBlocks[index]) {
+            return;
+        }
+
+        if (index < 0) {
+            if (boardSize < LEADERBOARD_SIZE) {
+                index = boardSize++;
+            } else if (blocks > boardBlocks[boardSize - 1]) {
+                index = boardSize - 1;
+            } else {
+                return;
+            }
+            boardIds[index] = playerId;
+        }
+
+        boardNames[index] = name;
+        boardBlocks[index] = blocks;
+
+        while (index > 0 && boardBlocks[index - 1] < boardBlocks[index]) {
+            swap(index - 1, index);
+            index--;
+        }
+    }
+
+    private void swap(int a, int b) {
+        UUID id = boardIds[a];
+        boardIds[a] = boardIds[b];
+        boardIds[b] = id;
+        String name = boardNames[a];
+        boardNames[a] = boardNames[b];
+        boardNames[b] = name;
+        long blocks = boardBlocks[a];
+        boardBlocks[a] = boardBlocks[b];
+        boardBlocks[b] = blocks;
+    }
+
+    /**
+     * Flush pending counters and clear memory (called on plugin disable).
+     */
+    public void cleanup() {
+        synchronized (databaseLock) {
+            flushLocked();
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    plugin.getLogger().warning("Failed to close mining stats connection: " + e.getMessage());
+                }
+                connection = null;
+            }
+        }
+        counters.clear();
+        boardSize = 0;
+    }
+}
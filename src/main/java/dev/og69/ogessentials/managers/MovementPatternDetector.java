@@ -0,0 +1,387 @@
+package dev.og69.ogessentials.managers;
+
+import java.util.Arrays;
+
+/**
+ * Scores how mechanical each player's recent movement looks.
+ *
+ * Every block crossing is quantised into a symbol made of the step direction,
+ * whether the look direction changed since the previous sample, and the input
+ * type (on foot, in a vehicle, in water). The last {@link #WINDOW} symbols are
+ * kept per activity slot in a primitive ring buffer together with:
+ * <ul>
+ *   <li>per-symbol counts and the running sum of c*log2(c), giving the Shannon
+ *       entropy of the window without rescanning it</li>
+ *   <li>per-lag match counts for lags 1..{@link #MAX_LAG}, giving how strongly
+ *       the window repeats itself (water streams, minecart loops)</li>
+ *   <li>the block position of each sample, a per-slot open-addressed table
+ *       counting each position in the window, and how many samples returned
+ *       to a block already visited in the window</li>
+ * </ul>
+ * Repeated step directions alone are not enough: sprinting down a tunnel or
+ * boating along an ice road repeats the same step too. Movement only counts
+ * as mechanical when it also keeps returning to the same blocks, i.e. it
+ * runs in an actual loop.
+ * Adding a sample costs O(MAX_LAG), independent of the window size.
+ *
+ * Main thread only.
+ */
+public class MovementPatternDetector {
+
+    /** Number of samples kept per player. */
+    public static final int WINDOW = 64;
+
+    /** Largest repetition period that is checked. */
+    public static final int MAX_LAG = 16;
+
+    /** Input types used in the symbol. */
+    public static final int INPUT_FOOT = 0;
+    public static final int INPUT_VEHICLE = 1;
+    public static final int INPUT_WATER = 2;
+
+    private static final int SYMBOLS = 27 * 2 * 3;
+
+    // Position table per slot: linear probing, at least twice WINDOW entries
+    private static final int TABLE_BITS = 7;
+    private static final int TABLE_SIZE = 1 << TABLE_BITS;
+    private static final int TABLE_MASK = TABLE_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // c * log2(c) for every possible count
+    private static final double[] C_LOG_C = new double[WINDOW + 1];
+
+    static {
+        for (int c = 1; c <= WINDOW; c++) {
+            C_LOG_C[c] = c * (Math.log(c) / Math.log(2));
+        }
+    }
+
+    /**
+     * Snapshot of a player's movement scores for the debug view.
+     */
+    public record PatternStats(int samples, double entropy, double periodicity, int period,
+                               double lookChangeRatio, double revisitRatio, boolean mechanical) {}
+
+    private int capacity = INITIAL_CAPACITY;
+
+    // Ring buffers, WINDOW entries per slot; head is the oldest sample
+    private byte[] ring = new byte[INITIAL_CAPACITY * WINDOW];
+    private int[] head = new int[INITIAL_CAPACITY];
+    private int[] size = new int[INITIAL_CAPACITY];
+
+    // Incremental scores
+    private int[] symbolCounts = new int[INITIAL_CAPACITY * SYMBOLS];
+    private double[] cLogCSum = new double[INITIAL_CAPACITY];
+    private int[] lagMatches = new int[INITIAL_CAPACITY * (MAX_LAG + 1)];
+    private int[] lookChanges = new int[INITIAL_CAPACITY];
+
+    // Block position of each sample, and whether it revisited a block in the window
+    private long[] positions = new long[INITIAL_CAPACITY * WINDOW];
+    private boolean[] revisited = new boolean[INITIAL_CAPACITY * WINDOW];
+    private int[] revisits = new int[INITIAL_CAPACITY];
+    private long[] tableKeys = new long[INITIAL_CAPACITY * TABLE_SIZE];
+    private int[] tableCounts = new int[INITIAL_CAPACITY * TABLE_SIZE];
+
+    // Look direction at the previous sample
+    private float[] sampleYaw = new float[INITIAL_CAPACITY];
+    private float[] samplePitch = new float[INITIAL_CAPACITY];
+
+    // Thresholds
+    private int minSamples = 48;
+    private double maxEntropy = 1.0;
+    private double minPeriodicity = 0.95;
+    private double minRevisits = 0.5;
+
+    /**
+     * Update the detection thresholds.
+     *
+     * @param minSamples Samples needed before a player can be judged
+     * @param maxEntropy Entropy (bits) at or below which movement is mechanical
+     * @param minPeriodicity Repetition ratio at or above which movement is mechanical
+     * @param minRevisits Share of samples returning to a visited block needed to call movement a loop
+     */
+    public void configure(int minSamples, double maxEntropy, double minPeriodicity, double minRevisits) {
+        this.minSamples = Math.max(MAX_LAG + 1, Math.min(WINDOW, minSamples));
+        this.maxEntropy = maxEntropy;
+        this.minPeriodicity = minPeriodicity;
+        this.minRevisits = minRevisits;
+    }
+
+    /**
+     * Forget all samples in a slot (called when a slot is assigned or released).
+     *
+     * @param slot The activity slot
+     */
+    public void reset(int slot) {
+        ensureSlot(slot);
+        head[slot] = 0;
+        size[slot] = 0;
+        cLogCSum[slot] = 0.0;
+        lookChanges[slot] = 0;
+        revisits[slot] = 0;
+        Arrays.fill(tableCounts, slot * TABLE_SIZE, (slot + 1) * TABLE_SIZE, 0);
+        Arrays.fill(symbolCounts, slot * SYMBOLS, (slot + 1) * SYMBOLS, 0);
+        Arrays.fill(lagMatches, slot * (MAX_LAG + 1), (slot + 1) * (MAX_LAG + 1), 0);
+    }
+
+    /**
+     * Record a block crossing.
+     *
+     * @param slot The activity slot
+     * @param x Block X after the move
+     * @param y Block Y after the move
+     * @param z Block Z after the move
+     * @param dx Block step on X
+     * @param dy Block step on Y
+     * @param dz Block step on Z
+     * @param yaw The player's yaw after the move
+     * @param pitch The player's pitch after the move
+     * @param input One of the INPUT_ constants
+     */
+    public void record(int slot, int x, int y, int z, int dx, int dy, int dz, float yaw, float pitch, int input) {
+        ensureSlot(slot);
+        boolean looked = yaw != sampleYaw[slot] || pitch != samplePitch[slot];
+        sampleYaw[slot] = yaw;
+        samplePitch[slot] = pitch;
+
+        int direction = (Integer.signum(dx) + 1) * 9 + (Integer.signum(dy) + 1) * 3 + (Integer.signum(dz) + 1);
+        int symbol = (direction * 2 + (looked ? 1 : 0)) * 3 + input;
+
+        int base = slot * WINDOW;
+        int lagBase = slot * (MAX_LAG + 1);
+        int n = size[slot];
+
+        // Evict the oldest sample once the window is full
+        if (n == WINDOW) {
+            int oldest = head[slot];
+            int evicted = ring[base + oldest] & 0xFF;
+            for (int lag = 1; lag <= MAX_LAG; lag++) {
+                if ((ring[base + (oldest + lag) % WINDOW] & 0xFF) == evicted) {
+                    lagMatches[lagBase + lag]--;
+                }
+            }
+            removeCount(slot, evicted);
+            if (lookedBit(evicted)) {
+                lookChanges[slot]--;
+            }
+            if (revisited[base + oldest]) {
+                revisits[slot]--;
+            }
+            removePosition(slot, positions[base + oldest]);
+            head[slot] = (oldest + 1) % WINDOW;
+            n--;
+        }
+
+        // Append the new sample
+        long position = pack(x, y, z);
+        boolean seen = !addPosition(slot, position);
+        int newest = (head[slot] + n) % WINDOW;
+        int maxLag = Math.min(MAX_LAG, n);
+        for (int lag = 1; lag <= maxLag; lag++) {
+            if ((ring[base + (newest - lag + WINDOW) % WINDOW] & 0xFF) == symbol) {
+                lagMatches[lagBase + lag]++;
+            }
+        }
+        ring[base + newest] = (byte) symbol;
+        positions[base + newest] = position;
+        revisited[base + newest] = seen;
+        if (seen) {
+            revisits[slot]++;
+        }
+        addCount(slot, symbol);
+        if (looked) {
+            lookChanges[slot]++;
+        }
+        size[slot] = n + 1;
+    }
+
+    /**
+     * Check whether a player's recent movement looks mechanical.
+     *
+     * @param slot The activity slot
+     * @return true if there are enough samples, they loop over the same blocks,
+     *         and they are low-entropy or periodic
+     */
+    public boolean isMechanical(int slot) {
+        if (slot >= capacity || size[slot] < minSamples) {
+            return false;
+        }
+        if (revisitRatio(slot) < minRevisits) {
+            return false;
+        }
+        return entropy(slot) <= maxEntropy || periodicity(slot, bestLag(slot)) >= minPeriodicity;
+    }
+
+    /**
+     * Get a player's current scores.
+     *
+     * @param slot The activity slot
+     * @return The scores
+     */
+    public PatternStats snapshot(int slot) {
+        if (slot >= capacity || size[slot] == 0) {
+            return new PatternStats(0, 0.0, 0.0, 0, 0.0, 0.0, false);
+        }
+        int n = size[slot];
+        int period = bestLag(slot);
+        return new PatternStats(n, entropy(slot), periodicity(slot, period), period,
+            (double) lookChanges[slot] / n, revisitRatio(slot), isMechanical(slot));
+    }
+
+    /**
+     * Clear every slot.
+     */
+    public void clear() {
+        Arrays.fill(size, 0);
+        Arrays.fill(head, 0);
+        Arrays.fill(cLogCSum, 0.0);
+        Arrays.fill(lookChanges, 0);
+        Arrays.fill(revisits, 0);
+        Arrays.fill(tableCounts, 0);
+        Arrays.fill(symbolCounts, 0);
+        Arrays.fill(lagMatches, 0);
+    }
+
+    private double revisitRatio(int slot) {
+        int n = size[slot];
+        return n == 0 ? 0.0 : (double) revisits[slot] / n;
+    }
+
+    private double entropy(int slot) {
+        int n = size[slot];
+        if (n == 0) {
+            return 0.0;
+        }
+        // H = log2(n) - (sum of c*log2(c)) / n
+        return Math.max(0.0, Math.log(n) / Math.log(2) - cLogCSum[slot] / n);
+    }
+
+    /**
+     * Find the lag at which the window repeats itself most (0 if fewer than two samples).
+     */
+    private int bestLag(int slot) {
+        int n = size[slot];
+        int lagBase = slot * (MAX_LAG + 1);
+        int best = 0;
+        double bestRatio = -1.0;
+        for (int lag = 1; lag < n && lag <= MAX_LAG; lag++) {
+            double ratio = (double) lagMatches[lagBase + lag] / (n - lag);
+            if (ratio > bestRatio) {
+                bestRatio = ratio;
+                best = lag;
+            }
+        }
+        return best;
+    }
+
+    private double periodicity(int slot, int lag) {
+        if (lag == 0) {
+            return 0.0;
+        }
+        return (double) lagMatches[slot * (MAX_LAG + 1) + lag] / (size[slot] - lag);
+    }
+
+    private void addCount(int slot, int symbol) {
+        int index = slot * SYMBOLS + symbol;
+        int c = symbolCounts[index]++;
+        cLogCSum[slot] += C_LOG_C[c + 1] - C_LOG_C[c];
+    }
+
+    private void removeCount(int slot, int symbol) {
+        int index = slot * SYMBOLS + symbol;
+        int c = symbolCounts[index]--;
+        cLogCSum[slot] -= C_LOG_C[c] - C_LOG_C[c - 1];
+    }
+
+    /**
+     * Count a position in a slot's table.
+     *
+     * @return true if the position was not in the window yet
+     */
+    private boolean addPosition(int slot, long position) {
+        int base = slot * TABLE_SIZE;
+        int index = home(position);
+        while (tableCounts[base + index] != 0) {
+            if (tableKeys[base + index] == position) {
+                tableCounts[base + index]++;
+                return false;
+            }
+            index = (index + 1) & TABLE_MASK;
+        }
+        tableKeys[base + index] = position;
+        tableCounts[base + index] = 1;
+        return true;
+    }
+
+    /**
+     * Uncount an evicted position, closing the gap by backward shifting
+     * when its count drops to zero.
+     */
+    private void removePosition(int slot, long position) {
+        int base = slot * TABLE_SIZE;
+        int index = home(position);
+        while (tableCounts[base + index] != 0 && tableKeys[base + index] != position) {
+            index = (index + 1) & TABLE_MASK;
+        }
+        if (tableCounts[base + index] == 0 || --tableCounts[base + index] > 0) {
+            return;
+        }
+
+        int hole = index;
+        int next = index;
+        while (true) {
+            next = (next + 1) & TABLE_MASK;
+            if (tableCounts[base + next] == 0) {
+                return;
+            }
+            // Move the entry back unless its home lies between the hole and it
+            int home = home(tableKeys[base + next]);
+            if (((next - home) & TABLE_MASK) >= ((next - hole) & TABLE_MASK)) {
+                tableKeys[base + hole] = tableKeys[base + next];
+                tableCounts[base + hole] = tableCounts[base + next];
+                tableCounts[base + next] = 0;
+                hole = next;
+            }
+        }
+    }
+
+    private static int home(long position) {
+        return (int) ((position * 0x9E3779B97F4A7C15L) >>> (64 - TABLE_BITS));
+    }
+
+    /**
+     * Pack a block position into a long (26 bits X, 12 bits Y, 26 bits Z).
+     */
+    private static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (y & 0xFFF) << 26) | (z & 0x3FFFFFF);
+    }
+
+    private static boolean lookedBit(int symbol) {
+        return ((symbol / 3) & 1) == 1;
+    }
+
+    private void ensureSlot(int slot) {
+        if (slot < capacity) {
+            return;
+        }
+        int newCapacity = capacity;
+        while (newCapacity <= slot) {
+            newCapacity *= 2;
+        }
+        ring = Arrays.copyOf(ring, newCapacity * WINDOW);
+        head = Arrays.copyOf(head, newCapacity);
+        size = Arrays.copyOf(size, newCapacity);
+        symbolCounts = Arrays.copyOf(symbolCounts, newCapacity * SYMBOLS);
+        cLogCSum = Arrays.copyOf(cLogCSum, newCapacity);
+        lagMatches = Arrays.copyOf(lagMatches, newCapacity * (MAX_LAG + 1));
+        lookChanges = Arrays.copyOf(lookChanges, newCapacity);
+        positions = Arrays.copyOf(positions, newCapacity * WINDOW);
+        revisited = Arrays.copyOf(revisited, newCapacity * WINDOW);
+        revisits = Arrays.copyOf(revisits, newCapacity);
+        tableKeys = Arrays.copyOf(tableKeys, newCapacity * TABLE_SIZE);
+        tableCounts = Arrays.copyOf(tableCounts, newCapacity * TABLE_SIZE);
+        sampleYaw = Arrays.copyOf(sampleYaw, newCapacity);
+        samplePitch = Arrays.copyOf(samplePitch, newCapacity);
+        capacity = newCapacity;
+    }
+}
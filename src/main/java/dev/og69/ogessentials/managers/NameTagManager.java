@@ -1,14 +1,16 @@
 package dev.og69.ogessentials.managers;
 
+import dev.og69.ogessentials.text.ComponentCache;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
-import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
 
-import java.util.Comparator;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -22,18 +24,149 @@ import java.util.UUID;
  * - In chat (via displayName)
  * - In tab list (via playerListName)
  * - Above player heads (via scoreboard teams)
+ * 
+ * Each player's tags are kept in a small array sorted by priority with the
+ * composed prefix/suffix cached, so they are only rebuilt when a tag
+ * actually changes. The last values sent to Bukkit are remembered too, and
+ * display name and team updates are skipped when nothing changed. Names
+ * are sent as Adventure components, parsed only when the text changed.
+ * 
+ * Tag changes only mark the player dirty. Dirty players are flushed once
+ * at the end of the tick (see NameTagFlushListener), so several changes
+ * in one tick, such as a join followed by a permission prefix and an
+ * AFK restore, are sent to clients as a single final state.
+ * 
+ * Scoreboard teams come from a TeamPool that reuses teams by slot and
+ * keeps a quitting player's team for a short rejoin grace window.
  */
 public class NameTagManager {
     
-    private static final String TEAM_PREFIX = "og_";
-    
     /**
      * Represents a name tag with prefix, suffix, and priority.
      */
     public record TagData(String prefix, String suffix, int priority) {}
     
-    // Tag storage: playerId -> (tagId -> TagData)
-    private final Map<UUID, Map<String, TagData>> playerTags = new HashMap<>();
+    /**
+     * A player's tags sorted by priority (higher first), with cached output.
+     */
+    private static final class TagSet {
+        String[] ids = new String[4];
+        TagData[] tags = new TagData[4];
+        int size = 0;
+        
+        // Composed, color-translated prefix and suffix
+        String prefix = "";
+        String suffix = "";
+        
+        // Last display name applied to the player
+        String appliedDisplayName;
+        
+        int indexOf(String tagId) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i].equals(tagId)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Insert or replace a tag.
+         * 
+         * @return false if the tag was already set to the same value
+         */
+        boolean put(String tagId, TagData tag) {
+            int index = indexOf(tagId);
+            if (index >= 0) {
+                if (tags[index].equals(tag)) {
+                    return false;
+                }
+                removeAt(index);
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                tags = Arrays.copyOf(tags, size * 2);
+            }
+            
+            // Insert after all tags of equal or higher priority
+            int insert = size;
+            while (insert > 0 && tags[insert - 1].priority() < tag.priority()) {
+                ids[insert] = ids[insert - 1];
+                tags[insert] = tags[insert - 1];
+                insert--;
+            }
+            ids[insert] = tagId;
+            tags[insert] = tag;
+            size++;
+            compose();
+            return true;
+        }
+        
+        /**
+         * Remove a tag.
+         * 
+         * @return false if the tag was not set
+         */
+        boolean remove(String tagId) {
+            int index = indexOf(tagId);
+            if (index < 0) {
+                return false;
+            }
+            removeAt(index);
+            compose();
+            return true;
+        }
+        
+        private void removeAt(int index) {
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            System.arraycopy(tags, index + 1, tags, index, size - index - 1);
+            size--;
+            ids[size] = null;
+            tags[size] = null;
+        }
+        
+        private void compose() {
+            StringBuilder prefixBuilder = new StringBuilder();
+            StringBuilder suffixBuilder = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                prefixBuilder.append(tags[i].prefix());
+                suffixBuilder.append(tags[i].suffix());
+            }
+            prefix = ChatColor.translateAlternateColorCodes('&', prefixBuilder.toString());
+            suffix = ChatColor.translateAlternateColorCodes('&', suffixBuilder.toString());
+        }
+    }
+    
+    // Tag storage per player
+    private final Map<UUID, TagSet> playerTags = new HashMap<>();
+    
+    // Players whose name tag must be re-applied at the end of this tick
+    private final Set<UUID> dirtyPlayers = new LinkedHashSet<>();
+    
+    // Flush statistics (main thread only)
+    private long updatesApplied = 0;
+    private long updatesSuppressed = 0;
+    
+    // Reusable scoreboard teams
+    private final TeamPool teamPool;
+    
+    /**
+     * Create a new name tag manager.
+     * 
+     * @param rejoinGraceMillis How long a quitting player's team is kept for a rejoin
+     */
+    public NameTagManager(long rejoinGraceMillis) {
+        this.teamPool = new TeamPool(rejoinGraceMillis);
+    }
+    
+    /**
+     * Change how long a quitting player's team is kept (config reload).
+     * 
+     * @param rejoinGraceMillis How long a quitting player's team is kept for a rejoin
+     */
+    public void setRejoinGraceMillis(long rejoinGraceMillis) {
+        teamPool.setGraceMillis(rejoinGraceMillis);
+    }
     
     /**
      * Set a tag for a player.
@@ -45,13 +178,12 @@ public class NameTagManager {
      * @param priority Higher priority tags appear first
      */
     public void setTag(Player player, String tagId, String prefix, String suffix, int priority) {
-        UUID playerId = player.getUniqueId();
-        
-        playerTags.computeIfAbsent(playerId, k -> new HashMap<>())
-                  .put(tagId, new TagData(prefix, suffix, priority));
+        TagSet tagSet = playerTags.computeIfAbsent(player.getUniqueId(), k -> new TagSet());
+        if (!tagSet.put(tagId, new TagData(prefix, suffix, priority))) {
+            return;
+        }
         
-        updateDisplayName(player);
-        updateScoreboardTeam(player);
+        markDirty(player.getUniqueId());
     }
     
     /**
@@ -61,18 +193,12 @@ public class NameTagManager {
      * @param tagId The tag identifier to remove
      */
     public void removeTag(Player player, String tagId) {
-        UUID playerId = player.getUniqueId();
-        
-        Map<String, TagData> tags = playerTags.get(playerId);
-        if (tags != null) {
-            tags.remove(tagId);
-            if (tags.isEmpty()) {
-                playerTags.remove(playerId);
-            }
+        TagSet tagSet = playerTags.get(player.getUniqueId());
+        if (tagSet == null || !tagSet.remove(tagId)) {
+            return;
         }
         
-        updateDisplayName(player);
-        updateScoreboardTeam(player);
+        markDirty(player.getUniqueId());
     }
     
     /**
@@ -83,8 +209,8 @@ public class NameTagManager {
      * @return true if the player has the tag
      */
     public boolean hasTag(UUID playerId, String tagId) {
-        Map<String, TagData> tags = playerTags.get(playerId);
-        return tags != null && tags.containsKey(tagId);
+        TagSet tagSet = playerTags.get(playerId);
+        return tagSet != null && tagSet.indexOf(tagId) >= 0;
     }
     
     /**
@@ -94,6 +220,7 @@ public class NameTagManager {
      */
     public void clearPlayer(UUID playerId) {
         playerTags.remove(playerId);
+        dirtyPlayers.remove(playerId);
     }
     
     /**
@@ -103,138 +230,118 @@ public class NameTagManager {
      */
     public void initializePlayer(Player player) {
         // Ensure team exists and player is added
-        getOrCreateTeam(player);
-        updateScoreboardTeam(player);
+        playerTags.computeIfAbsent(player.getUniqueId(), k -> new TagSet());
+        teamPool.acquire(player.getUniqueId(), player.getName());
+        markDirty(player.getUniqueId());
     }
     
     /**
-     * Clean up a player's scoreboard team on quit.
-     * 
-     * @param player The player who quit
+     * Apply the final name tag state of every player changed this tick
+     * (called at the end of each tick by NameTagFlushListener).
      */
-    public void cleanupPlayer(Player player) {
-        clearPlayer(player.getUniqueId());
+    public void flush() {
+        teamPool.expire(System.currentTimeMillis());
+        if (dirtyPlayers.isEmpty()) {
+            return;
+        }
         
-        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
-        String teamName = getTeamName(player);
-        Team team = scoreboard.getTeam(teamName);
-        if (team != null) {
-            team.unregister();
+        for (UUID playerId : dirtyPlayers) {
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null) {
+                continue;
+            }
+            boolean changed = updateDisplayName(player);
+            changed |= updateScoreboardTeam(player);
+            if (changed) {
+                updatesApplied++;
+            } else {
+                updatesSuppressed++;
+            }
         }
+        dirtyPlayers.clear();
     }
     
     /**
-     * Reset a player's display name to their original name.
-     * Called when a player has no tags or on cleanup.
-     * 
-     * @param player The player to reset
+     * Get the number of per-player updates sent to clients.
      */
-    public void resetDisplayName(Player player) {
-        player.setDisplayName(player.getName());
-        player.setPlayerListName(player.getName());
+    public long getUpdatesApplied() {
+        return updatesApplied;
     }
     
     /**
-     * Rebuild and apply the player's display name based on all active tags.
-     * Tags are sorted by priority (higher priority = appears first).
-     * 
-     * @param player The player to update
+     * Get the number of update requests that were coalesced into another
+     * update in the same tick or turned out not to change anything.
      */
-    private void updateDisplayName(Player player) {
-        UUID playerId = player.getUniqueId();
-        Map<String, TagData> tags = playerTags.get(playerId);
-        
-        if (tags == null || tags.isEmpty()) {
-            // No tags, reset to original name
-            resetDisplayName(player);
-            return;
+    public long getUpdatesSuppressed() {
+        return updatesSuppressed;
+    }
+    
+    private void markDirty(UUID playerId) {
+        if (!dirtyPlayers.add(playerId)) {
+            updatesSuppressed++;
         }
-        
-        // Sort tags by priority (higher first)
-        StringBuilder prefixBuilder = new StringBuilder();
-        StringBuilder suffixBuilder = new StringBuilder();
-        
-        tags.values().stream()
-            .sorted(Comparator.comparingInt(TagData::priority).reversed())
-            .forEach(tag -> {
-                prefixBuilder.append(tag.prefix());
-                suffixBuilder.append(tag.suffix());
-            });
-        
-        String newName = ChatColor.translateAlternateColorCodes('&', prefixBuilder.toString() + player.getName() + suffixBuilder.toString());
-        
-        player.setDisplayName(newName);
-        player.setPlayerListName(newName);
     }
     
     /**
-     * Update the scoreboard team for a player to show tags above their head.
+     * Release a player's scoreboard team on quit. The team is kept for the
+     * rejoin grace window before its slot is reused.
      * 
-     * @param player The player to update
+     * @param player The player who quit
      */
-    private void updateScoreboardTeam(Player player) {
-        Team team = getOrCreateTeam(player);
-        
-        UUID playerId = player.getUniqueId();
-        Map<String, TagData> tags = playerTags.get(playerId);
-        
-        if (tags == null || tags.isEmpty()) {
-            // No tags, clear prefix/suffix
-            team.setPrefix("");
-            team.setSuffix("");
-            return;
-        }
-        
-        // Sort tags by priority (higher first)
-        StringBuilder prefixBuilder = new StringBuilder();
-        StringBuilder suffixBuilder = new StringBuilder();
-        
-        tags.values().stream()
-            .sorted(Comparator.comparingInt(TagData::priority).reversed())
-            .forEach(tag -> {
-                prefixBuilder.append(tag.prefix());
-                suffixBuilder.append(tag.suffix());
-            });
-        
-        team.setPrefix(ChatColor.translateAlternateColorCodes('&', prefixBuilder.toString()));
-        team.setSuffix(ChatColor.translateAlternateColorCodes('&', suffixBuilder.toString()));
+    public void cleanupPlayer(Player player) {
+        clearPlayer(player.getUniqueId());
+        teamPool.release(player.getUniqueId());
     }
     
     /**
-     * Get or create the scoreboard team for a player.
+     * Reset a player's display name to their original name.
+     * Called when a player has no tags or on cleanup.
      * 
-     * @param player The player
-     * @return The team for this player
+     * @param player The player to reset
      */
-    private Team getOrCreateTeam(Player player) {
-        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
-        String teamName = getTeamName(player);
+    public void resetDisplayName(Player player) {
+        // null restores the player's plain name
+        player.displayName(null);
+        player.playerListName(null);
         
-        Team team = scoreboard.getTeam(teamName);
-        if (team == null) {
-            team = scoreboard.registerNewTeam(teamName);
+        TagSet tagSet = playerTags.get(player.getUniqueId());
+        if (tagSet != null) {
+            tagSet.appliedDisplayName = player.getName();
         }
+    }
+    
+    /**
+     * Apply the player's cached display name, skipping the update when
+     * it has not changed since it was last applied.
+     * 
+     * @param player The player to update
+     * @return true if anything was sent
+     */
+    private boolean updateDisplayName(Player player) {
+        TagSet tagSet = playerTags.computeIfAbsent(player.getUniqueId(), k -> new TagSet());
         
-        // Ensure player is on their team
-        if (!team.hasEntry(player.getName())) {
-            team.addEntry(player.getName());
+        String newName = tagSet.prefix + player.getName() + tagSet.suffix;
+        if (newName.equals(tagSet.appliedDisplayName)) {
+            return false;
         }
         
-        return team;
+        Component displayName = ComponentCache.parse(newName);
+        player.displayName(displayName);
+        player.playerListName(displayName);
+        tagSet.appliedDisplayName = newName;
+        return true;
     }
     
     /**
-     * Get the team name for a player.
-     * Uses a prefix to avoid conflicts with other plugins.
+     * Update the scoreboard team for a player to show tags above their head,
+     * skipping prefix/suffix updates that would not change anything.
      * 
-     * @param player The player
-     * @return The team name
+     * @param player The player to update
+     * @return true if anything was sent
      */
-    private String getTeamName(Player player) {
-        // Team names are limited to 16 characters in older versions
-        // Use first 13 chars of UUID to ensure uniqueness within limit
-        String uuidPart = player.getUniqueId().toString().replace("-", "").substring(0, 10);
-        return TEAM_PREFIX + uuidPart;
+    private boolean updateScoreboardTeam(Player player) {
+        TagSet tagSet = playerTags.computeIfAbsent(player.getUniqueId(), k -> new TagSet());
+        return teamPool.apply(player.getUniqueId(), player.getName(), tagSet.prefix, tagSet.suffix);
     }
     
     /**
@@ -245,16 +352,11 @@ public class NameTagManager {
         // Reset all online players
         for (Player player : Bukkit.getOnlinePlayers()) {
             resetDisplayName(player);
-            
-            // Remove team
-            Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
-            String teamName = getTeamName(player);
-            Team team = scoreboard.getTeam(teamName);
-            if (team != null) {
-                team.unregister();
-            }
         }
         
+        // Remove teams
+        teamPool.cleanup();
         playerTags.clear();
+        dirtyPlayers.clear();
     }
 }
@@ -1,9 +1,12 @@
 package dev.og69.ogessentials.managers;
 
 import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.text.ChatCodes;
+import dev.og69.ogessentials.text.ChatFormat;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.permissions.PermissionAttachment;
+import org.bukkit.permissions.PermissionAttachmentInfo;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -23,9 +26,27 @@ public class PermissionManager {
     // Cache: UUID -> Set of permissions
     private final Map<UUID, Set<String>> permissionCache = new ConcurrentHashMap<>();
     
-    // Cache: UUID -> [prefix, suffix]
+    // Cache: UUID -> [prefix, suffix] (arrays are replaced, never modified)
     private final Map<UUID, String[]> formatCache = new ConcurrentHashMap<>();
     
+    // Chat format snapshots of online players (read by the async chat thread)
+    private final Map<UUID, ChatFormat> chatFormats = new ConcurrentHashMap<>();
+    
+    /**
+     * Per-player flags compiled from permissions, read on the async chat
+     * thread instead of calling hasPermission per message.
+     *
+     * @param permissionHash Hash of the effective permissions this was compiled from
+     * @param chatCodes Allowed chat code groups (see ChatCodes)
+     * @param spamBypass Whether the player bypasses SpamGuard
+     */
+    private record CompiledPermissions(long permissionHash, int chatCodes, boolean spamBypass) {}
+
+    private static final CompiledPermissions NO_PERMISSIONS = new CompiledPermissions(0L, 0, false);
+
+    // Compiled permission snapshots per online player
+    private final Map<UUID, CompiledPermissions> compiledPermissions = new ConcurrentHashMap<>();
+    
     // Active permission attachments
     private final Map<UUID, PermissionAttachment> attachments = new ConcurrentHashMap<>();
 
@@ -118,6 +139,58 @@ public class PermissionManager {
         
         player.recalculatePermissions();
         player.updateCommands();
+        
+        refreshCompiledPermissions(player);
+    }
+
+    /**
+     * Recompile the permission snapshots derived from a player's effective
+     * permissions. Called after our own permissions are applied and whenever
+     * the server resends the player's commands, which happens after op/deop
+     * and when other permission plugins update the player.
+     * 
+     * Commands are resent far more often than permissions change, so the
+     * snapshots are only rebuilt when a hash of the effective permissions
+     * differs from the one they were compiled from.
+     * 
+     * @param player The player
+     */
+    public void refreshCompiledPermissions(Player player) {
+        // Only players we have applied permissions to (not quitting ones)
+        if (!attachments.containsKey(player.getUniqueId())) {
+            return;
+        }
+        
+        long hash = permissionHash(player);
+        CompiledPermissions current = compiledPermissions.get(player.getUniqueId());
+        if (current != null && current.permissionHash() == hash) {
+            return;
+        }
+        
+        // Compile chat permissions for the async chat thread
+        compiledPermissions.put(player.getUniqueId(), new CompiledPermissions(
+            hash, ChatCodes.compile(player), player.hasPermission(SpamGuard.BYPASS_PERMISSION)));
+        
+        // Recompile the 3x3 pickaxe block permissions from the new permission set
+        if (plugin.getPickaxePermissionCache() != null) {
+            plugin.getPickaxePermissionCache().recalculate(player);
+        }
+    }
+
+    /**
+     * Hash a player's effective permissions (name and value) and op status,
+     * which decides undeclared and op-default nodes. Independent of order.
+     */
+    private static long permissionHash(Player player) {
+        long hash = player.isOp() ? 1L : 0L;
+        for (PermissionAttachmentInfo info : player.getEffectivePermissions()) {
+            long h = info.getPermission().hashCode() * 2L + (info.getValue() ? 1L : 0L);
+            // 64-bit finalizer from MurmurHash3, so the sum does not cancel out
+            h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+            h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            hash += h ^ (h >>> 33);
+        }
+        return hash;
     }
 
     /**
@@ -131,6 +204,11 @@ public class PermissionManager {
         }
         permissionCache.remove(uuid);
         formatCache.remove(uuid);
+        chatFormats.remove(uuid);
+        compiledPermissions.remove(uuid);
+        if (plugin.getPickaxePermissionCache() != null) {
+            plugin.getPickaxePermissionCache().invalidate(uuid);
+        }
         player.updateCommands();
     }
 
@@ -273,13 +351,14 @@ public class PermissionManager {
             
             // Update cache
             String[] format = formatCache.getOrDefault(uuid, new String[]{"", ""});
-            if (prefix != null) format[0] = prefix;
-            if (suffix != null) format[1] = suffix;
-            formatCache.put(uuid, format);
+            formatCache.put(uuid, new String[]{
+                prefix != null ? prefix : format[0],
+                suffix != null ? suffix : format[1]
+            });
             
-            // Update nametag for online player
+            // Update nametag and chat format for online player
             Player player = Bukkit.getPlayer(uuid);
-            if (player != null && plugin.getNameTagManager() != null) {
+            if (player != null) {
                 updatePlayerNameTag(player);
             }
             
@@ -335,17 +414,54 @@ public class PermissionManager {
     }
 
     /**
-     * Update player's nametag with prefix/suffix.
+     * Get a player's chat format snapshot.
+     * 
+     * @param uuid The player's UUID
+     * @return The snapshot, or null if the player is not loaded
+     */
+    public ChatFormat getChatFormat(UUID uuid) {
+        return chatFormats.get(uuid);
+    }
+
+    /**
+     * Get the chat code groups a player may use, compiled when their
+     * permissions were applied.
+     * 
+     * @param uuid The player's UUID
+     * @return The ChatCodes mask (0 if the player is not loaded)
+     */
+    public int getChatCodeMask(UUID uuid) {
+        return compiledPermissions.getOrDefault(uuid, NO_PERMISSIONS).chatCodes();
+    }
+
+    /**
+     * Check whether a player bypasses SpamGuard, from the flag compiled
+     * when their permissions were applied.
+     * 
+     * @param uuid The player's UUID
+     * @return true if the player has ogessentials.antispam.bypass (false if not loaded)
+     */
+    public boolean canBypassSpamGuard(UUID uuid) {
+        return compiledPermissions.getOrDefault(uuid, NO_PERMISSIONS).spamBypass();
+    }
+
+    /**
+     * Update player's nametag and chat format with prefix/suffix.
      */
     public void updatePlayerNameTag(Player player) {
         UUID uuid = player.getUniqueId();
         String[] format = formatCache.getOrDefault(uuid, new String[]{"", ""});
+        String prefix = format[0];
+        String suffix = format[1];
+        
+        // Rebuild the chat format only when the prefix or suffix changed
+        ChatFormat chatFormat = chatFormats.get(uuid);
+        if (chatFormat == null || !chatFormat.matches(prefix, suffix)) {
+            chatFormats.put(uuid, ChatFormat.of(player.getName(), prefix, suffix));
+        }
         
         NameTagManager nameTagManager = plugin.getNameTagManager();
         if (nameTagManager != null) {
-            String prefix = format[0];
-            String suffix = format[1];
-            
             if (!prefix.isEmpty() || !suffix.isEmpty()) {
                 nameTagManager.setTag(player, "perm_format", prefix, suffix, 50);
             } else {
@@ -385,6 +501,8 @@ public class PermissionManager {
     public void reload() {
         permissionCache.clear();
         formatCache.clear();
+        chatFormats.clear();
+        compiledPermissions.clear();
         
         for (Player player : Bukkit.getOnlinePlayers()) {
             loadPlayer(player.getUniqueId());
@@ -406,5 +524,7 @@ public class PermissionManager {
         attachments.clear();
         permissionCache.clear();
         formatCache.clear();
+        chatFormats.clear();
+        compiledPermissions.clear();
     }
 }
@@ -0,0 +1,109 @@
+package dev.og69.ogessentials.managers;
+
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches which block types each player may break with special mining tools.
+ *
+ * Checking "ogessentials.3x3pick.break.&lt;block&gt;" for every neighbouring
+ * block means a string concatenation and a permission map lookup per block.
+ * Instead, the allowed materials are compiled into an EnumSet once when a
+ * player's permissions are applied, and looked up by Material afterwards.
+ * PermissionListener recompiles the set whenever the server resends the
+ * player's commands (op/deop, other permission plugins).
+ */
+public class PickaxePermissionCache {
+
+    private static final String WILDCARD_PERMISSION = "ogessentials.3x3pick.break.*";
+    private static final String BLOCK_PERMISSION_PREFIX = "ogessentials.3x3pick.break.";
+
+    // All breakable block materials and their permission nodes, built once
+    private static final Material[] BLOCK_MATERIALS;
+    private static final String[] BLOCK_PERMISSIONS;
+    private static final Set<Material> ALL_BLOCKS;
+
+    static {
+        List<Material> blocks = new ArrayList<>();
+        for (Material material : Material.values()) {
+            if (material.isBlock() && !material.isLegacy() && !material.isAir()) {
+                blocks.add(material);
+            }
+        }
+        BLOCK_MATERIALS = blocks.toArray(new Material[0]);
+        BLOCK_PERMISSIONS = new String[BLOCK_MATERIALS.length];
+        for (int i = 0; i < BLOCK_MATERIALS.length; i++) {
+            BLOCK_PERMISSIONS[i] = BLOCK_PERMISSION_PREFIX + BLOCK_MATERIALS[i].name().toLowerCase();
+        }
+        ALL_BLOCKS = Collections.unmodifiableSet(EnumSet.copyOf(blocks));
+    }
+
+    // Compiled allowed materials per player
+    private final Map<UUID, Set<Material>> allowedMaterials = new ConcurrentHashMap<>();
+
+    /**
+     * Get the set of materials a player may break with special mining tools.
+     * Compiles the set on first use if the player has not been recalculated yet.
+     *
+     * @param player The player
+     * @return The allowed materials (never null, do not modify)
+     */
+    public Set<Material> getAllowed(Player player) {
+        Set<Material> allowed = allowedMaterials.get(player.getUniqueId());
+        if (allowed == null) {
+            allowed = recalculate(player);
+        }
+        return allowed;
+    }
+
+    /**
+     * Rebuild the allowed material set from the player's current permissions.
+     * Must be called whenever the player's permissions change.
+     *
+     * @param player The player
+     * @return The freshly compiled set
+     */
+    public Set<Material> recalculate(Player player) {
+        Set<Material> allowed;
+
+        if (player.hasPermission(WILDCARD_PERMISSION)) {
+            allowed = ALL_BLOCKS;
+        } else {
+            EnumSet<Material> compiled = EnumSet.noneOf(Material.class);
+            for (int i = 0; i < BLOCK_MATERIALS.length; i++) {
+                if (player.hasPermission(BLOCK_PERMISSIONS[i])) {
+                    compiled.add(BLOCK_MATERIALS[i]);
+                }
+            }
+            allowed = Collections.unmodifiableSet(compiled);
+        }
+
+        allowedMaterials.put(player.getUniqueId(), allowed);
+        return allowed;
+    }
+
+    /**
+     * Drop the cached set for a player (called on quit).
+     *
+     * @param playerId The player's UUID
+     */
+    public void invalidate(UUID playerId) {
+        allowedMaterials.remove(playerId);
+    }
+
+    /**
+     * Clear all cached data (called on plugin disable).
+     */
+    public void cleanup() {
+        allowedMaterials.clear();
+    }
+}
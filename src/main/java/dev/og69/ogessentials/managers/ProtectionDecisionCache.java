@@ -0,0 +1,181 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import dev.og69.ogessentials.events.AreaBlockBreakEvent;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides whether area mining may break extra blocks in protected areas.
+ *
+ * Extra blocks broken by the 3x3 pickaxe or Vein Miner do not fire a
+ * BlockBreakEvent of their own. When the protection check is enabled, an
+ * AreaBlockBreakEvent is fired so protection plugins can deny the break,
+ * and the outcome is cached per (player, chunk, block type) for a short
+ * time so repeated swings in the same area do not fire events again.
+ */
+public class ProtectionDecisionCache {
+
+    // Prune expired entries once a player's cache grows past this size
+    private static final int PRUNE_THRESHOLD = 256;
+
+    private final OGEssentials plugin;
+
+    /**
+     * Cache key: world, chunk and block type.
+     */
+    private record DecisionKey(UUID worldId, int chunkX, int chunkZ, Material type) {}
+
+    /**
+     * Cached decision with its expiry time.
+     */
+    private record Decision(boolean allowed, long expiresAt) {}
+
+    // Decisions per player (main thread only)
+    private final Map<UUID, Map<DecisionKey, Decision>> decisions = new HashMap<>();
+
+    // Metrics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder denials = new LongAdder();
+
+    private boolean enabled;
+    private long ttlMillis;
+
+    /**
+     * Create a new protection decision cache.
+     *
+     * @param plugin The plugin instance
+     */
+    public ProtectionDecisionCache(OGEssentials plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Pick up the protection check settings from the current settings snapshot.
+     */
+    public void reload() {
+        Settings.ProtectionCheck protectionCheck = plugin.getSettings().protectionCheck();
+        enabled = protectionCheck.enabled();
+        ttlMillis = protectionCheck.cacheTtlMillis();
+        decisions.clear();
+    }
+
+    /**
+     * Check if the protection check mode is enabled.
+     *
+     * @return true if extra blocks are checked against protection plugins
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Check whether a player may break an extra block with an area mining tool.
+     * Always allows when the protection check is disabled.
+     *
+     * @param player The player mining
+     * @param block The extra block to break
+     * @return true if the break is allowed
+     */
+    public boolean canBreak(Player player, Block block) {
+        if (!enabled) {
+            return true;
+        }
+
+        long now = System.currentTimeMillis();
+        DecisionKey key = new DecisionKey(block.getWorld().getUID(), block.getX() >> 4, block.getZ() >> 4,
+            block.getType());
+        Map<DecisionKey, Decision> playerDecisions =
+            decisions.computeIfAbsent(player.getUniqueId(), k -> new HashMap<>());
+
+        Decision cached = playerDecisions.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            hits.increment();
+            return cached.allowed();
+        }
+        misses.increment();
+
+        // Ask protection plugins through a synthetic break event; the outcome
+        // is recorded at MONITOR, after every protection plugin decided
+        AreaBlockBreakEvent check = new AreaBlockBreakEvent(block, player);
+        Bukkit.getPluginManager().callEvent(check);
+        boolean allowed = check.isAllowed();
+        if (!allowed) {
+            denials.increment();
+        }
+
+        if (playerDecisions.size() >= PRUNE_THRESHOLD) {
+            pruneExpired(playerDecisions, now);
+        }
+        playerDecisions.put(key, new Decision(allowed, now + ttlMillis));
+        return allowed;
+    }
+
+    private void pruneExpired(Map<DecisionKey, Decision> playerDecisions, long now) {
+        Iterator<Decision> iterator = playerDecisions.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drop all cached decisions for a player (called on quit).
+     *
+     * @param playerId The player's UUID
+     */
+    public void clearPlayer(UUID playerId) {
+        decisions.remove(playerId);
+    }
+
+    /**
+     * Get the number of decisions served from the cache.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of decisions that required firing an event.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of fired checks that were denied.
+     */
+    public long getDenials() {
+        return denials.sum();
+    }
+
+    /**
+     * Get the cache hit rate.
+     *
+     * @return Hit rate between 0 and 1, or 0 if no checks were made
+     */
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Clear all cached data (called on plugin disable).
+     */
+    public void cleanup() {
+        decisions.clear();
+    }
+}
@@ -0,0 +1,328 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Chat and command flood protection.
+ *
+ * Each player has a rate limit for chat and one for commands. A limit is
+ * a token bucket kept as a single AtomicLong holding the time at which
+ * the bucket will be full again (the GCRA form of a token bucket), so a
+ * check is one compare-and-set with no locks. Recent message hashes are
+ * kept in a small ring buffer per player to catch repeated messages.
+ *
+ * Violations escalate: the first ones only warn, then the player is
+ * muted for a while. Players with ogessentials.antispam.bypass are never
+ * limited. Safe to call from the async chat thread.
+ */
+public class SpamGuard {
+
+    public static final String BYPASS_PERMISSION = "ogessentials.antispam.bypass";
+
+    /**
+     * Outcome of a check.
+     */
+    public enum Verdict {
+        ALLOW,
+        RATE_LIMITED,
+        DUPLICATE,
+        // First violation that triggered a mute
+        MUTE_STARTED,
+        // Message sent while muted
+        MUTED
+    }
+
+    /**
+     * Limits for one channel (chat or commands).
+     *
+     * @param intervalMillis Time for one token to come back
+     * @param burstMillis Time for the whole bucket to refill (burst * interval)
+     * @param duplicateHistory Recent messages compared for duplicates (0 = off)
+     * @param duplicateWindowMillis How long a message counts as recent
+     */
+    private record Channel(long intervalMillis, long burstMillis, int duplicateHistory, long duplicateWindowMillis) {}
+
+    /**
+     * Settings, replaced as a whole on reload.
+     */
+    private record Limits(boolean enabled, Channel chat, Channel commands, int muteAfter,
+                          long muteMillis, long violationResetMillis) {}
+
+    /**
+     * Lock-free rate limit and duplicate history for one channel.
+     */
+    private static final class Bucket {
+        // Time at which the bucket is full again
+        final AtomicLong fullAt = new AtomicLong();
+
+        // Ring buffer of recent message hashes and when they were sent
+        final AtomicLongArray hashes;
+        final AtomicLongArray times;
+        final AtomicInteger cursor = new AtomicInteger();
+
+        Bucket(int history) {
+            hashes = new AtomicLongArray(Math.max(1, history));
+            times = new AtomicLongArray(Math.max(1, history));
+        }
+
+        /**
+         * Take a token.
+         *
+         * @return false if the bucket is empty
+         */
+        boolean tryAcquire(long now, Channel channel) {
+            while (true) {
+                long current = fullAt.get();
+                long base = Math.max(current, now);
+                long next = base + channel.intervalMillis();
+                if (next - now > channel.burstMillis()) {
+                    return false;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Check a message against the recent history and record it.
+         *
+         * @return true if the same message was sent recently
+         */
+        boolean isDuplicate(long hash, long now, Channel channel) {
+            int history = Math.min(channel.duplicateHistory(), hashes.length());
+            if (history <= 0) {
+                return false;
+            }
+            for (int i = 0; i < history; i++) {
+                if (hashes.get(i) == hash && now - times.get(i) <= channel.duplicateWindowMillis()) {
+                    return true;
+                }
+            }
+            int slot = Math.floorMod(cursor.getAndIncrement(), history);
+            hashes.set(slot, hash);
+            times.set(slot, now);
+            return false;
+        }
+    }
+
+    /**
+     * Per-player state.
+     */
+    private static final class PlayerState {
+        final Bucket chat;
+        final Bucket commands;
+        final AtomicInteger violations = new AtomicInteger();
+        final AtomicLong lastViolation = new AtomicLong();
+        final AtomicLong mutedUntil = new AtomicLong();
+
+        PlayerState(Limits limits) {
+            chat = new Bucket(limits.chat().duplicateHistory());
+            commands = new Bucket(limits.commands().duplicateHistory());
+        }
+    }
+
+    private final OGEssentials plugin;
+    private volatile Limits limits;
+    private final Map<UUID, PlayerState> players = new ConcurrentHashMap<>();
+
+    // Metrics since startup
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder mutedDrops = new LongAdder();
+    private final LongAdder mutes = new LongAdder();
+
+    /**
+     * Create a new spam guard.
+     *
+     * @param plugin The plugin instance
+     */
+    public SpamGuard(OGEssentials plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Pick up anti-spam settings from the current settings snapshot.
+     */
+    public void reload() {
+        Settings.AntiSpam antiSpam = plugin.getSettings().antiSpam();
+        limits = new Limits(
+            antiSpam.enabled(),
+            channel(antiSpam.chat()),
+            channel(antiSpam.commands()),
+            antiSpam.muteAfter(),
+            antiSpam.muteMillis(),
+            antiSpam.violationResetMillis()
+        );
+    }
+
+    private static Channel channel(Settings.SpamChannel channel) {
+        // Ring buffers keep their size until the player rejoins
+        return new Channel(channel.intervalMillis(), channel.burst() * channel.intervalMillis(),
+            channel.duplicateHistory(), channel.duplicateWindowMillis());
+    }
+
+    /**
+     * Check a chat message.
+     *
+     * @param playerId The sender's UUID
+     * @param message The plain message text
+     * @return The verdict
+     */
+    public Verdict checkChat(UUID playerId, String message) {
+        Limits current = limits;
+        if (!current.enabled()) {
+            return Verdict.ALLOW;
+        }
+        long now = System.currentTimeMillis();
+        PlayerState state = state(playerId, current);
+
+        if (now < state.mutedUntil.get()) {
+            mutedDrops.increment();
+            return Verdict.MUTED;
+        }
+        return check(state, state.chat, current.chat(), current, message, now);
+    }
+
+    /**
+     * Check a command.
+     *
+     * @param playerId The sender's UUID
+     * @param command The full command line
+     * @return The verdict (muted players may still run commands)
+     */
+    public Verdict checkCommand(UUID playerId, String command) {
+        Limits current = limits;
+        if (!current.enabled()) {
+            return Verdict.ALLOW;
+        }
+        long now = System.currentTimeMillis();
+        PlayerState state = state(playerId, current);
+        return check(state, state.commands, current.commands(), current, command, now);
+    }
+
+    /**
+     * Get the seconds left on a player's mute.
+     */
+    public long getMuteSecondsLeft(UUID playerId) {
+        PlayerState state = players.get(playerId);
+        if (state == null) {
+            return 0;
+        }
+        long left = state.mutedUntil.get() - System.currentTimeMillis();
+        return left <= 0 ? 0 : (left + 999) / 1000;
+    }
+
+    private Verdict check(PlayerState state, Bucket bucket, Channel channel, Limits current, String text, long now) {
+        Verdict verdict = Verdict.ALLOW;
+        if (!bucket.tryAcquire(now, channel)) {
+            rateLimited.increment();
+            verdict = Verdict.RATE_LIMITED;
+        } else if (bucket.isDuplicate(hash(text), now, channel)) {
+            duplicates.increment();
+            verdict = Verdict.DUPLICATE;
+        }
+        if (verdict == Verdict.ALLOW) {
+            return verdict;
+        }
+
+        // Escalate: forget old violations, mute on the configured count
+        long last = state.lastViolation.getAndSet(now);
+        int count = now - last > current.violationResetMillis()
+            ? resetViolations(state)
+            : state.violations.incrementAndGet();
+        if (count >= current.muteAfter()) {
+            state.violations.set(0);
+            state.mutedUntil.set(now + current.muteMillis());
+            mutes.increment();
+            return Verdict.MUTE_STARTED;
+        }
+        return verdict;
+    }
+
+    private static int resetViolations(PlayerState state) {
+        state.violations.set(1);
+        return 1;
+    }
+
+    private PlayerState state(UUID playerId, Limits current) {
+        PlayerState state = players.get(playerId);
+        if (state == null) {
+            state = players.computeIfAbsent(playerId, id -> new PlayerState(current));
+        }
+        return state;
+    }
+
+    /**
+     * 64-bit FNV-1a over the message, ignoring case and whitespace, so
+     * "Hello  World" and "hello world" count as the same message.
+     */
+    private static long hash(String text) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            hash ^= Character.toLowerCase(c);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Get the number of messages and commands dropped by the rate limit.
+     */
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Get the number of messages and commands dropped as duplicates.
+     */
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    /**
+     * Get the number of messages dropped because the sender was muted.
+     */
+    public long getMutedDrops() {
+        return mutedDrops.sum();
+    }
+
+    /**
+     * Get the number of mutes issued.
+     */
+    public long getMutes() {
+        return mutes.sum();
+    }
+
+    /**
+     * Forget a player's state on quit, unless they are muted (so
+     * rejoining does not lift a mute).
+     *
+     * @param playerId The player's UUID
+     */
+    public void cleanupPlayer(UUID playerId) {
+        long now = System.currentTimeMillis();
+        players.computeIfPresent(playerId, (id, state) -> state.mutedUntil.get() > now ? state : null);
+    }
+
+    /**
+     * Clear all data (called on plugin disable).
+     */
+    public void cleanup() {
+        players.clear();
+    }
+}
@@ -0,0 +1,225 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.text.ComponentCache;
+import org.bukkit.Bukkit;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Pool of name tag teams on the main scoreboard, indexed by slot.
+ *
+ * Each slot's team is named "og_" plus the slot index in base 36, so names
+ * are short and can never collide with each other. Teams are registered
+ * once and then reused: a player who quits keeps their slot for a grace
+ * window so a quick rejoin needs no team packets at all, and only after
+ * that is their entry removed and the slot handed to the next player.
+ * The last prefix/suffix sent for each slot is remembered so unchanged
+ * values are never sent again, and only changed values are parsed into
+ * components.
+ *
+ * Main thread only.
+ */
+public class TeamPool {
+
+    private static final String TEAM_PREFIX = "og_";
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * A slot waiting to be released once its grace window ends.
+     */
+    private record Release(int slot, UUID playerId, long releaseAt) {}
+
+    private long graceMillis;
+
+    // Slot assigned to each player (online or within the grace window)
+    private final Map<UUID, Integer> slots = new HashMap<>();
+
+    // Per slot: current entry and last values sent (null = unknown)
+    private String[] entries = new String[INITIAL_CAPACITY];
+    private String[] appliedPrefixes = new String[INITIAL_CAPACITY];
+    private String[] appliedSuffixes = new String[INITIAL_CAPACITY];
+    private long[] releaseDeadlines = new long[INITIAL_CAPACITY];
+    private int highWaterMark = 0;
+
+    // Released slots available for reuse
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount = 0;
+
+    // Slots of players who quit, in release order (the grace window only changes on
+    // reload; after a shorter one, newer entries wait behind older ones)
+    private final Deque<Release> pendingReleases = new ArrayDeque<>();
+
+    /**
+     * Create a new team pool.
+     *
+     * @param graceMillis How long a quitting player's team is kept for a rejoin
+     */
+    public TeamPool(long graceMillis) {
+        this.graceMillis = graceMillis;
+    }
+
+    /**
+     * Change the grace window for players who quit from now on.
+     *
+     * @param graceMillis How long a quitting player's team is kept for a rejoin
+     */
+    public void setGraceMillis(long graceMillis) {
+        this.graceMillis = graceMillis;
+    }
+
+    /**
+     * Get the team for a player, assigning a slot and adding the entry if needed.
+     *
+     * @param playerId The player's UUID
+     * @param entry The player's name (the team entry)
+     * @return The player's team
+     */
+    public Team acquire(UUID playerId, String entry) {
+        Integer existing = slots.get(playerId);
+        int slot;
+        if (existing != null) {
+            slot = existing;
+        } else {
+            slot = freeCount > 0 ? freeSlots[--freeCount] : newSlot();
+            slots.put(playerId, slot);
+        }
+
+        Team team = Bukkit.getScoreboardManager().getMainScoreboard().getTeam(teamName(slot));
+        if (team == null) {
+            team = registerTeam(slot);
+        }
+
+        if (!entry.equals(entries[slot])) {
+            if (entries[slot] != null) {
+                team.removeEntry(entries[slot]);
+            }
+            team.addEntry(entry);
+            entries[slot] = entry;
+        }
+        return team;
+    }
+
+    /**
+     * Set a player's team prefix and suffix, skipping values already sent.
+     *
+     * @param playerId The player's UUID
+     * @param entry The player's name
+     * @param prefix The composed prefix
+     * @param suffix The composed suffix
+     * @return true if anything was sent
+     */
+    public boolean apply(UUID playerId, String entry, String prefix, String suffix) {
+        Team team = acquire(playerId, entry);
+        int slot = slots.get(playerId);
+
+        boolean changed = false;
+        if (!prefix.equals(appliedPrefixes[slot])) {
+            team.prefix(ComponentCache.parse(prefix));
+            appliedPrefixes[slot] = prefix;
+            changed = true;
+        }
+        if (!suffix.equals(appliedSuffixes[slot])) {
+            team.suffix(ComponentCache.parse(suffix));
+            appliedSuffixes[slot] = suffix;
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Keep a quitting player's team for the grace window.
+     *
+     * @param playerId The player's UUID
+     */
+    public void release(UUID playerId) {
+        Integer slot = slots.get(playerId);
+        if (slot != null) {
+            long releaseAt = System.currentTimeMillis() + graceMillis;
+            releaseDeadlines[slot] = releaseAt;
+            pendingReleases.addLast(new Release(slot, playerId, releaseAt));
+        }
+    }
+
+    /**
+     * Hand slots whose grace window ended back to the pool (called every tick).
+     *
+     * @param now The current time in milliseconds
+     */
+    public void expire(long now) {
+        while (!pendingReleases.isEmpty() && pendingReleases.peekFirst().releaseAt() <= now) {
+            Release release = pendingReleases.pollFirst();
+            Integer slot = slots.get(release.playerId());
+
+            // Skip if the player rejoined, quit again later, or the slot changed hands
+            if (slot == null || slot != release.slot() || releaseDeadlines[slot] != release.releaseAt()
+                || Bukkit.getPlayer(release.playerId()) != null) {
+                continue;
+            }
+
+            slots.remove(release.playerId());
+            Team team = Bukkit.getScoreboardManager().getMainScoreboard().getTeam(teamName(slot));
+            if (team != null && entries[slot] != null) {
+                team.removeEntry(entries[slot]);
+            }
+            entries[slot] = null;
+
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    /**
+     * Unregister every pool team (called on plugin disable).
+     */
+    public void cleanup() {
+        Scoreboard scoreboard = Bukkit.getScoreboardManager().getMainScoreboard();
+        for (int slot = 0; slot < highWaterMark; slot++) {
+            Team team = scoreboard.getTeam(teamName(slot));
+            if (team != null) {
+                team.unregister();
+            }
+        }
+        Arrays.fill(entries, null);
+        Arrays.fill(appliedPrefixes, null);
+        Arrays.fill(appliedSuffixes, null);
+        slots.clear();
+        pendingReleases.clear();
+        freeCount = 0;
+        highWaterMark = 0;
+    }
+
+    private int newSlot() {
+        if (highWaterMark == entries.length) {
+            int capacity = entries.length * 2;
+            entries = Arrays.copyOf(entries, capacity);
+            appliedPrefixes = Arrays.copyOf(appliedPrefixes, capacity);
+            appliedSuffixes = Arrays.copyOf(appliedSuffixes, capacity);
+            releaseDeadlines = Arrays.copyOf(releaseDeadlines, capacity);
+        }
+        return highWaterMark++;
+    }
+
+    private static String teamName(int slot) {
+        return TEAM_PREFIX + Integer.toString(slot, 36);
+    }
+
+    /**
+     * Register a slot's team (first use, or after something else removed it).
+     */
+    private Team registerTeam(int slot) {
+        Team team = Bukkit.getScoreboardManager().getMainScoreboard().registerNewTeam(teamName(slot));
+        entries[slot] = null;
+        appliedPrefixes[slot] = null;
+        appliedSuffixes[slot] = null;
+        return team;
+    }
+}
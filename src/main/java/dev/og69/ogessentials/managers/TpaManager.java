@@ -1,8 +1,8 @@
 package dev.og69.ogessentials.managers;
 
 import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.text.Message;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 
 import java.util.HashMap;
@@ -125,7 +125,6 @@ public class TpaManager {
     public void expireOldRequests() {
         long now = System.currentTimeMillis();
         long expiryMillis = getExpiryMillis();
-        String prefix = getPrefix();
         
         Iterator<Map.Entry<UUID, TpaRequest>> iterator = pendingRequests.entrySet().iterator();
         while (iterator.hasNext()) {
@@ -142,13 +141,11 @@ public class TpaManager {
                 Player target = Bukkit.getPlayer(targetId);
                 
                 if (requester != null && requester.isOnline() && target != null) {
-                    requester.sendMessage(prefix + ChatColor.RED + "Your TPA request to " + 
-                        target.getName() + " has expired.");
+                    plugin.getMessages().send(requester, Message.TPA_EXPIRED_REQUESTER, target.getName());
                 }
                 
                 if (target != null && target.isOnline() && requester != null) {
-                    target.sendMessage(prefix + ChatColor.RED + "The TPA request from " + 
-                        requester.getName() + " has expired.");
+                    plugin.getMessages().send(target, Message.TPA_EXPIRED_TARGET, requester.getName());
                 }
                 
                 iterator.remove();
@@ -176,8 +173,7 @@ public class TpaManager {
      * @return Expiry time in milliseconds
      */
     public long getExpiryMillis() {
-        int expirySeconds = plugin.getConfig().getInt("tpa.expiry", 60);
-        return expirySeconds * 1000L;
+        return plugin.getSettings().tpaExpirySeconds() * 1000L;
     }
     
     /**
@@ -186,9 +182,4 @@ public class TpaManager {
     public void cleanup() {
         pendingRequests.clear();
     }
-    
-    private String getPrefix() {
-        return ChatColor.translateAlternateColorCodes('&',
-            plugin.getConfig().getString("prefix", "&7[&bOGSMP&7] &r"));
-    }
 }
@@ -0,0 +1,272 @@
+package dev.og69.ogessentials.managers;
+
+import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.config.Settings;
+import dev.og69.ogessentials.listeners.BlockBreakListener;
+import dev.og69.ogessentials.tasks.VeinMineTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Manages vein mining for the Vein Miner tool.
+ *
+ * When a Vein Miner breaks an ore or log, connected blocks of the same type
+ * are collected with a bounded breadth-first flood fill and then broken over
+ * several ticks by a VeinMineTask, so large veins never stall a single tick.
+ * Block positions are packed into longs to keep the search free of boxing.
+ */
+public class VeinMineManager {
+
+    private final OGEssentials plugin;
+
+    // Active vein jobs: player UUID -> scheduler task ID
+    private final Map<UUID, Integer> activeJobs = new HashMap<>();
+
+    // Block types that can be vein mined (ores and logs)
+    private final Set<Material> veinableTypes;
+
+    /**
+     * Create a new vein mine manager.
+     *
+     * @param plugin The plugin instance
+     */
+    public VeinMineManager(OGEssentials plugin) {
+        this.plugin = plugin;
+
+        EnumSet<Material> types = EnumSet.noneOf(Material.class);
+        for (Material material : Material.values()) {
+            if (material.isLegacy() || !material.isBlock()) {
+                continue;
+            }
+            if (material.name().endsWith("_ORE") || Tag.LOGS.isTagged(material)) {
+                types.add(material);
+            }
+        }
+        types.add(Material.ANCIENT_DEBRIS);
+        this.veinableTypes = types;
+    }
+
+    /**
+     * Check if a block type can be vein mined.
+     *
+     * @param type The block type
+     * @return true for ores and logs
+     */
+    public boolean isVeinable(Material type) {
+        return veinableTypes.contains(type);
+    }
+
+    /**
+     * Start vein mining from a block the player has just broken.
+     * The origin block itself is left to the BlockBreakEvent.
+     *
+     * @param player The player mining
+     * @param origin The block that was broken
+     * @param tool The Vein Miner tool
+     * @param allowed The materials the player may break
+     * @param breaker The listener providing the shared break/drop/log path
+     * @return true if a vein job was started
+     */
+    public boolean startVein(Player player, Block origin, ItemStack tool, Set<Material> allowed,
+                             BlockBreakListener breaker) {
+        UUID playerId = player.getUniqueId();
+
+        // One vein at a time per player
+        if (activeJobs.containsKey(playerId)) {
+            return false;
+        }
+
+        Material type = origin.getType();
+        if (!allowed.contains(type)) {
+            return false;
+        }
+
+        Settings settings = plugin.getSettings();
+        int maxBlocks = settings.veinMaxBlocks();
+        int blocksPerTick = settings.veinBlocksPerTick();
+
+        // The origin counts towards the vein size
+        long[] vein = new long[maxBlocks - 1];
+        int count = collectVein(origin, type, vein);
+        if (count == 0) {
+            return false;
+        }
+
+        VeinMineTask task = new VeinMineTask(this, breaker, player, origin.getWorld(), type,
+            Arrays.copyOf(vein, count), tool, allowed, blocksPerTick);
+        int taskId = Bukkit.getScheduler().scheduleSyncRepeatingTask(plugin, task, 1L, 1L);
+        if (taskId == -1) {
+            return false;
+        }
+
+        activeJobs.put(playerId, taskId);
+        return true;
+    }
+
+    /**
+     * Finish a player's vein job and cancel its task.
+     * Called by the VeinMineTask once the vein is exhausted.
+     *
+     * @param playerId The player's UUID
+     */
+    public void finishVein(UUID playerId) {
+        Integer taskId = activeJobs.remove(playerId);
+        if (taskId != null) {
+            Bukkit.getScheduler().cancelTask(taskId);
+        }
+    }
+
+    /**
+     * Collect blocks of the given type connected to the origin (including diagonals).
+     * The output array doubles as the BFS queue, so the search is bounded by its length.
+     * Unloaded chunks are never entered.
+     *
+     * @param origin The starting block (not included in the output)
+     * @param type The block type to follow
+     * @param out Receives packed positions in BFS order
+     * @return The number of positions written to out
+     */
+    int collectVein(Block origin, Material type, long[] out) {
+        if (out.length == 0) {
+            return 0;
+        }
+
+        World world = origin.getWorld();
+        int minY = world.getMinHeight();
+        int maxY = world.getMaxHeight();
+
+        LongHashSet visited = new LongHashSet(out.length + 1);
+        visited.add(pack(origin.getX(), origin.getY(), origin.getZ()));
+
+        int head = -1; // -1 expands the origin, then the queue
+        int tail = 0;
+
+        while (head < tail) {
+            int cx, cy, cz;
+            if (head < 0) {
+                cx = origin.getX();
+                cy = origin.getY();
+                cz = origin.getZ();
+            } else {
+                long current = out[head];
+                cx = unpackX(current);
+                cy = unpackY(current);
+                cz = unpackZ(current);
+            }
+            head++;
+
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int y = cy + dy;
+                    if (y < minY || y >= maxY) {
+                        continue;
+                    }
+                    for (int dz = -1; dz <= 1; dz++) {
+                        if (dx == 0 && dy == 0 && dz == 0) {
+                            continue;
+                        }
+
+                        int x = cx + dx;
+                        int z = cz + dz;
+                        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+                            continue;
+                        }
+                        if (world.getBlockAt(x, y, z).getType() != type) {
+                            continue;
+                        }
+                        if (!visited.add(pack(x, y, z))) {
+                            continue;
+                        }
+
+                        out[tail++] = pack(x, y, z);
+                        if (tail == out.length) {
+                            return tail;
+                        }
+                    }
+                }
+            }
+        }
+
+        return tail;
+    }
+
+    /**
+     * Pack a block position into a long (26 bits X, 26 bits Z, 12 bits Y).
+     */
+    public static long pack(int x, int y, int z) {
+        return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 38);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) (packed << 52 >> 52);
+    }
+
+    public static int unpackZ(long packed) {
+        return (int) (packed << 26 >> 38);
+    }
+
+    /**
+     * Cancel all running vein jobs (called on plugin disable).
+     */
+    public void cleanup() {
+        for (int taskId : activeJobs.values()) {
+            Bukkit.getScheduler().cancelTask(taskId);
+        }
+        activeJobs.clear();
+    }
+
+    /**
+     * Minimal open-addressing set of packed block positions.
+     * Long.MIN_VALUE marks an empty slot; it would decode to X = -2^25,
+     * which lies outside the world border and can never be visited.
+     */
+    private static final class LongHashSet {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final long[] table;
+        private final int mask;
+
+        LongHashSet(int expected) {
+            // Keep the load factor at or below 50%
+            int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+            table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            mask = capacity - 1;
+        }
+
+        /**
+         * @return true if the value was not already present
+         */
+        boolean add(long value) {
+            int index = (int) ((value * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+            while (true) {
+                long slot = table[index];
+                if (slot == EMPTY) {
+                    table[index] = value;
+                    return true;
+                }
+                if (slot == value) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package dev.og69.ogessentials.storage;
+
+import dev.og69.ogessentials.OGEssentials;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binary snapshot of AFK state, so AFK status and idle time survive
+ * restarts and reloads.
+ *
+ * The whole snapshot is one small file (afk-state.bin) written in a single
+ * sequential pass to a temporary file and then atomically renamed over the
+ * previous snapshot, so a crash mid-write never leaves a torn file.
+ *
+ * Layout: magic, version, entry count, then per entry the UUID as two
+ * longs, the idle duration in milliseconds and the AFK flag.
+ */
+public class AfkStateStore {
+
+    private static final int MAGIC = 0x4F47414B; // "OGAK"
+    private static final byte VERSION = 1;
+
+    /**
+     * One player's saved AFK state.
+     */
+    public record Entry(UUID playerId, long idleMillis, boolean afk) {}
+
+    private final OGEssentials plugin;
+    private final Path file;
+
+    /**
+     * Create a new AFK state store.
+     *
+     * @param plugin The plugin instance
+     */
+    public AfkStateStore(OGEssentials plugin) {
+        this.plugin = plugin;
+        this.file = plugin.getDataFolder().toPath().resolve("afk-state.bin");
+    }
+
+    /**
+     * Read the last snapshot.
+     *
+     * @return Saved entries by player UUID (empty if there is no valid snapshot)
+     */
+    public Map<UUID, Entry> load() {
+        Map<UUID, Entry> entries = new HashMap<>();
+        if (!Files.exists(file)) {
+            return entries;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                plugin.getLogger().warning("Ignoring afk-state.bin with unknown format.");
+                return entries;
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                UUID playerId = new UUID(in.readLong(), in.readLong());
+                long idleMillis = in.readLong();
+                boolean afk = in.readBoolean();
+                entries.put(playerId, new Entry(playerId, idleMillis, afk));
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to load afk-state.bin: " + e.getMessage());
+            entries.clear();
+        }
+        return entries;
+    }
+
+    /**
+     * Replace the snapshot with the given entries.
+     *
+     * @param entries The entries to save
+     */
+    public void save(Collection<Entry> entries) {
+        Path temp = file.resolveSibling("afk-state.bin.tmp");
+
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(entries.size());
+                for (Entry entry : entries) {
+                    out.writeLong(entry.playerId().getMostSignificantBits());
+                    out.writeLong(entry.playerId().getLeastSignificantBits());
+                    out.writeLong(entry.idleMillis());
+                    out.writeBoolean(entry.afk());
+                }
+            }
+
+            try {
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to save afk-state.bin: " + e.getMessage());
+        }
+    }
+}
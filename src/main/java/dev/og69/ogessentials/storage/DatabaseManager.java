@@ -103,6 +103,19 @@ public class DatabaseManager {
             
             // Create index for faster permission lookups
             stmt.execute("CREATE INDEX IF NOT EXISTS idx_user_permissions_uuid ON user_permissions(uuid)");
+            
+            // Mining telemetry table (3x3 pickaxe and Vein Miner)
+            stmt.execute("CREATE TABLE IF NOT EXISTS mining_stats (" +
+                    "uuid TEXT PRIMARY KEY," +
+                    "username TEXT," +
+                    "blocks INTEGER DEFAULT 0," +
+                    "drops INTEGER DEFAULT 0," +
+                    "swings INTEGER DEFAULT 0," +
+                    "handler_nanos INTEGER DEFAULT 0" +
+                    ")");
+            
+            // Create index for leaderboard queries
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_mining_stats_blocks ON mining_stats(blocks)");
         }
     }
     
@@ -120,6 +133,23 @@ public class DatabaseManager {
         return connection;
     }
     
+    /**
+     * Open an extra connection to the same database, for work done off the
+     * main thread so it never shares a transaction with the main connection.
+     * The caller owns and closes it.
+     * 
+     * @return A new connection
+     * @throws SQLException if connection fails
+     */
+    public Connection openConnection() throws SQLException {
+        Connection extra = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement stmt = extra.createStatement()) {
+            // Wait for the main connection's writes instead of failing with SQLITE_BUSY
+            stmt.execute("PRAGMA busy_timeout = 5000");
+        }
+        return extra;
+    }
+    
     /**
      * Close the database connection.
      */
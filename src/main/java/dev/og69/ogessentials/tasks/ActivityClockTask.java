@@ -0,0 +1,30 @@
+package dev.og69.ogessentials.tasks;
+
+import dev.og69.ogessentials.managers.AfkManager;
+
+/**
+ * Scheduled task that advances the AFK tick clock.
+ * 
+ * Runs every tick so activity updates on the movement hot path can read a
+ * cached timestamp instead of calling System.currentTimeMillis() per packet,
+ * and applies activity recorded from async events since the last tick.
+ */
+public class ActivityClockTask implements Runnable {
+    
+    private final AfkManager afkManager;
+    
+    /**
+     * Create a new activity clock task.
+     * 
+     * @param afkManager The AFK manager whose clock to advance
+     */
+    public ActivityClockTask(AfkManager afkManager) {
+        this.afkManager = afkManager;
+    }
+    
+    @Override
+    public void run() {
+        afkManager.tickClock();
+        afkManager.drainPendingActivity();
+    }
+}
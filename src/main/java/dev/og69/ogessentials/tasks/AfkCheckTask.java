@@ -1,15 +1,16 @@
 package dev.og69.ogessentials.tasks;
 
 import dev.og69.ogessentials.OGEssentials;
+import dev.og69.ogessentials.managers.AfkCapacityManager;
 import dev.og69.ogessentials.managers.AfkManager;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 
 /**
- * Scheduled task that checks for inactive players and marks them as AFK.
+ * Scheduled task that marks inactive players as AFK.
  * 
- * Runs every 60 seconds (1200 ticks) and checks if any player has been
- * inactive longer than the configured timeout.
+ * Runs every second (20 ticks) and pops due deadlines from the AFK
+ * manager's deadline queue, so players go AFK within a second of the
+ * configured timeout without scanning everyone online. Also lets the
+ * AFK capacity manager kick idle players when the server is busy.
  */
 public class AfkCheckTask implements Runnable {
     
@@ -29,21 +30,12 @@ public class AfkCheckTask implements Runnable {
     
     @Override
     public void run() {
-        long now = System.currentTimeMillis();
-        long timeoutMillis = afkManager.getAfkTimeoutMillis();
+        afkManager.processExpired(System.currentTimeMillis());
         
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            // Skip players already AFK
-            if (afkManager.isAfk(player.getUniqueId())) {
-                continue;
-            }
-            
-            long lastActivity = afkManager.getLastActivity(player.getUniqueId());
-            
-            // Check if player has been inactive too long
-            if (lastActivity > 0 && (now - lastActivity) > timeoutMillis) {
-                afkManager.setAfk(player, true);
-            }
+        // Free slots held by AFK players if the server is busy
+        AfkCapacityManager capacityManager = plugin.getAfkCapacityManager();
+        if (capacityManager != null) {
+            capacityManager.enforce();
         }
     }
 }
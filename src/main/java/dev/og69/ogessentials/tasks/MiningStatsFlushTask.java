@@ -0,0 +1,27 @@
+package dev.og69.ogessentials.tasks;
+
+import dev.og69.ogessentials.managers.MiningStatsManager;
+
+/**
+ * Scheduled task that writes pending mining telemetry to the database.
+ * 
+ * Runs asynchronously every mining-stats.flush-interval seconds (default 300).
+ */
+public class MiningStatsFlushTask implements Runnable {
+    
+    private final MiningStatsManager miningStatsManager;
+    
+    /**
+     * Create a new mining stats flush task.
+     * 
+     * @param miningStatsManager The mining stats manager to flush
+     */
+    public MiningStatsFlushTask(MiningStatsManager miningStatsManager) {
+        this.miningStatsManager = miningStatsManager;
+    }
+    
+    @Override
+    public void run() {
+        miningStatsManager.flush();
+    }
+}
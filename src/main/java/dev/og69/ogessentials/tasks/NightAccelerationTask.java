@@ -0,0 +1,33 @@
+package dev.og69.ogessentials.tasks;
+
+import dev.og69.ogessentials.listeners.SleepListener;
+
+import java.util.UUID;
+
+/**
+ * Scheduled task that speeds up the night in one world.
+ *
+ * Runs every tick while at least one player in the world is in bed. The
+ * SleepListener cancels it once morning is reached or nobody is sleeping.
+ */
+public class NightAccelerationTask implements Runnable {
+
+    private final SleepListener sleepListener;
+    private final UUID worldId;
+
+    /**
+     * Create a new night acceleration task.
+     *
+     * @param sleepListener The sleep listener holding the world's counts
+     * @param worldId The world to accelerate
+     */
+    public NightAccelerationTask(SleepListener sleepListener, UUID worldId) {
+        this.sleepListener = sleepListener;
+        this.worldId = worldId;
+    }
+
+    @Override
+    public void run() {
+        sleepListener.accelerateNight(worldId);
+    }
+}
@@ -0,0 +1,93 @@
+package dev.og69.ogessentials.tasks;
+
+import dev.og69.ogessentials.listeners.BlockBreakListener;
+import dev.og69.ogessentials.managers.VeinMineManager;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Scheduled task that breaks a collected vein over several ticks.
+ *
+ * Runs every tick and breaks at most the configured number of blocks,
+ * finishing itself through the VeinMineManager once the vein is exhausted
+ * or the player goes offline.
+ */
+public class VeinMineTask implements Runnable {
+
+    private final VeinMineManager manager;
+    private final BlockBreakListener breaker;
+    private final UUID playerId;
+    private final World world;
+    private final Material type;
+    private final long[] positions;
+    private final ItemStack tool;
+    private final Set<Material> allowed;
+    private final int blocksPerTick;
+
+    private int cursor = 0;
+
+    /**
+     * Create a new vein mine task.
+     *
+     * @param manager The vein mine manager that owns this job
+     * @param breaker The listener providing the shared break/drop/log path
+     * @param player The player mining
+     * @param world The world the vein is in
+     * @param type The block type of the vein
+     * @param positions Packed block positions to break, in BFS order
+     * @param tool The tool used for drops
+     * @param allowed The materials the player may break
+     * @param blocksPerTick Maximum number of blocks broken per tick
+     */
+    public VeinMineTask(VeinMineManager manager, BlockBreakListener breaker, Player player, World world,
+                        Material type, long[] positions, ItemStack tool, Set<Material> allowed,
+                        int blocksPerTick) {
+        this.manager = manager;
+        this.breaker = breaker;
+        this.playerId = player.getUniqueId();
+        this.world = world;
+        this.type = type;
+        this.positions = positions;
+        this.tool = tool;
+        this.allowed = allowed;
+        this.blocksPerTick = blocksPerTick;
+    }
+
+    @Override
+    public void run() {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null || !player.isOnline()) {
+            manager.finishVein(playerId);
+            return;
+        }
+
+        int end = Math.min(positions.length, cursor + blocksPerTick);
+        for (; cursor < end; cursor++) {
+            long packed = positions[cursor];
+            int x = VeinMineManager.unpackX(packed);
+            int z = VeinMineManager.unpackZ(packed);
+
+            // Skip blocks whose chunk unloaded or that changed since collection
+            if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+                continue;
+            }
+            Block block = world.getBlockAt(x, VeinMineManager.unpackY(packed), z);
+            if (block.getType() != type) {
+                continue;
+            }
+
+            breaker.breakBlockNaturally(player, block, tool, allowed);
+        }
+
+        if (cursor >= positions.length) {
+            manager.finishVein(playerId);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package dev.og69.ogessentials.text;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.permissions.Permissible;
+
+/**
+ * Permission-scoped '&' codes in chat.
+ *
+ * Each group of codes has its own permission. A player's permissions are
+ * compiled into a bitmask when permissions are applied (and again when
+ * they change, see PermissionManager.refreshCompiledPermissions), so the
+ * async chat thread parses a message in a single pass with no
+ * permission lookups. Codes the player may not use stay in the message
+ * as plain text and are not applied.
+ */
+public final class ChatCodes {
+
+    public static final int COLORS = 1;
+    public static final int BOLD = 1 << 1;
+    public static final int ITALIC = 1 << 2;
+    public static final int UNDERLINE = 1 << 3;
+    public static final int STRIKETHROUGH = 1 << 4;
+    public static final int OBFUSCATED = 1 << 5;
+    public static final int HEX = 1 << 6;
+
+    // Permission for each bit, in bit order
+    private static final String[] PERMISSIONS = {
+        "ogessentials.chat.color",
+        "ogessentials.chat.format.bold",
+        "ogessentials.chat.format.italic",
+        "ogessentials.chat.format.underline",
+        "ogessentials.chat.format.strikethrough",
+        "ogessentials.chat.format.obfuscated",
+        "ogessentials.chat.hex"
+    };
+
+    // Bit for each code character (0 = not a code)
+    private static final int[] CODE_BITS = new int[128];
+
+    // Legacy colors in code order (&0 to &f)
+    private static final NamedTextColor[] COLORS_BY_CODE = {
+        NamedTextColor.BLACK, NamedTextColor.DARK_BLUE, NamedTextColor.DARK_GREEN, NamedTextColor.DARK_AQUA,
+        NamedTextColor.DARK_RED, NamedTextColor.DARK_PURPLE, NamedTextColor.GOLD, NamedTextColor.GRAY,
+        NamedTextColor.DARK_GRAY, NamedTextColor.BLUE, NamedTextColor.GREEN, NamedTextColor.AQUA,
+        NamedTextColor.RED, NamedTextColor.LIGHT_PURPLE, NamedTextColor.YELLOW, NamedTextColor.WHITE
+    };
+
+    static {
+        for (char c : "0123456789abcdefrABCDEFR".toCharArray()) {
+            CODE_BITS[c] = COLORS;
+        }
+        CODE_BITS['l'] = CODE_BITS['L'] = BOLD;
+        CODE_BITS['o'] = CODE_BITS['O'] = ITALIC;
+        CODE_BITS['n'] = CODE_BITS['N'] = UNDERLINE;
+        CODE_BITS['m'] = CODE_BITS['M'] = STRIKETHROUGH;
+        CODE_BITS['k'] = CODE_BITS['K'] = OBFUSCATED;
+    }
+
+    private ChatCodes() {
+    }
+
+    /**
+     * Compile a player's chat code permissions.
+     *
+     * @param permissible The player
+     * @return The allowed code groups
+     */
+    public static int compile(Permissible permissible) {
+        int mask = 0;
+        for (int bit = 0; bit < PERMISSIONS.length; bit++) {
+            if (permissible.hasPermission(PERMISSIONS[bit])) {
+                mask |= 1 << bit;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Turn a message into a component, applying the '&' codes (and
+     * "&#RRGGBB" hex colors) a mask allows. Other codes are kept as text.
+     *
+     * As with legacy codes, a color (or &r) resets the formatting before it.
+     *
+     * @param message The raw message
+     * @param mask The allowed code groups
+     * @return The message component
+     */
+    public static Component deserialize(String message, int mask) {
+        TextComponent.Builder root = Component.text();
+        StringBuilder text = new StringBuilder(message.length());
+        Style style = Style.empty();
+        int length = message.length();
+        for (int i = 0; i < length; i++) {
+            char c = message.charAt(i);
+            if (c == '&' && i + 1 < length) {
+                char code = message.charAt(i + 1);
+                int bit;
+                int span;
+                if (code == '#' && isHex(message, i + 2)) {
+                    bit = HEX;
+                    span = 8;
+                } else {
+                    bit = code < CODE_BITS.length ? CODE_BITS[code] : 0;
+                    span = 2;
+                }
+
+                if (bit != 0 && (mask & bit) != 0) {
+                    if (!text.isEmpty()) {
+                        root.append(Component.text(text.toString(), style));
+                        text.setLength(0);
+                    }
+                    style = apply(style, bit, message, i + 1);
+                    i += span - 1;
+                    continue;
+                }
+            }
+            text.append(c);
+        }
+        if (!text.isEmpty()) {
+            root.append(Component.text(text.toString(), style));
+        }
+        return root.build();
+    }
+
+    /**
+     * Apply one allowed code to the current style.
+     *
+     * @param at Index of the code character (after '&')
+     */
+    private static Style apply(Style style, int bit, String message, int at) {
+        char code = Character.toLowerCase(message.charAt(at));
+        return switch (bit) {
+            case HEX -> Style.style(TextColor.color(Integer.parseInt(message, at + 1, at + 7, 16)));
+            case COLORS -> code == 'r' ? Style.empty() : Style.style(COLORS_BY_CODE[Character.digit(code, 16)]);
+            case BOLD -> style.decoration(TextDecoration.BOLD, true);
+            case ITALIC -> style.decoration(TextDecoration.ITALIC, true);
+            case UNDERLINE -> style.decoration(TextDecoration.UNDERLINED, true);
+            case STRIKETHROUGH -> style.decoration(TextDecoration.STRIKETHROUGH, true);
+            default -> style.decoration(TextDecoration.OBFUSCATED, true);
+        };
+    }
+
+    private static boolean isHex(String message, int start) {
+        if (start + 6 > message.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 6; i++) {
+            if (Character.digit(message.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
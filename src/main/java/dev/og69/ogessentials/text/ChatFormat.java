@@ -0,0 +1,37 @@
+package dev.og69.ogessentials.text;
+
+import net.kyori.adventure.text.Component;
+
+/**
+ * Immutable chat format snapshot for one player.
+ *
+ * The header (prefix, name and suffix) is parsed once when the snapshot is
+ * built, so the async chat thread only reads it. A new snapshot replaces
+ * the old one whenever the player's prefix or suffix changes.
+ *
+ * @param prefix The raw prefix ('&' codes)
+ * @param suffix The raw suffix ('&' codes)
+ * @param header The parsed prefix, name and suffix
+ */
+public record ChatFormat(String prefix, String suffix, Component header) {
+
+    /**
+     * Build a snapshot.
+     *
+     * @param name The player's name
+     * @param prefix The raw prefix
+     * @param suffix The raw suffix
+     * @return The snapshot
+     */
+    public static ChatFormat of(String name, String prefix, String suffix) {
+        // Parsed as one string so the prefix's last color carries over to the name
+        return new ChatFormat(prefix, suffix, ComponentCache.parse(prefix + name + suffix));
+    }
+
+    /**
+     * Check if this snapshot was built from the given prefix and suffix.
+     */
+    public boolean matches(String prefix, String suffix) {
+        return this.prefix.equals(prefix) && this.suffix.equals(suffix);
+    }
+}
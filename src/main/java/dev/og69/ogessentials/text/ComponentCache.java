@@ -0,0 +1,130 @@
+package dev.og69.ogessentials.text;
+
+import dev.og69.ogessentials.OGEssentials;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+import org.bukkit.ChatColor;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parses legacy color templates into Adventure components once and caches them.
+ *
+ * Templates may use '&' codes (from config) and '§' codes (from ChatColor
+ * constants). Each key keeps the template it was parsed from, so a changed
+ * template (after a reload) is parsed again on next use and an unchanged one
+ * is never re-parsed. Components are immutable and safe to share between
+ * threads and messages.
+ */
+public class ComponentCache {
+
+    public static final String DEFAULT_PREFIX = "&7[&bOGSMP&7] &r";
+
+    private static final LegacyComponentSerializer SECTION = LegacyComponentSerializer.legacySection();
+
+    /**
+     * A parsed template.
+     */
+    private record Entry(String template, Component component, String legacy) {}
+
+    private final OGEssentials plugin;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new component cache.
+     *
+     * @param plugin The plugin instance
+     */
+    public ComponentCache(OGEssentials plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Get the component for a template, parsing it only if the key is new
+     * or its template changed.
+     *
+     * @param key The cache key
+     * @param template The legacy template
+     * @return The parsed component
+     */
+    public Component get(String key, String template) {
+        return entry(key, template).component();
+    }
+
+    /**
+     * Get the '§'-translated string for a template, for callers that still
+     * send legacy strings.
+     *
+     * @param key The cache key
+     * @param template The legacy template
+     * @return The translated string
+     */
+    public String legacy(String key, String template) {
+        return entry(key, template).legacy();
+    }
+
+    /**
+     * Get the configured message prefix.
+     */
+    public Component prefix() {
+        return get("prefix", plugin.getSettings().prefix());
+    }
+
+    /**
+     * Get the configured message prefix as a legacy string.
+     */
+    public String legacyPrefix() {
+        return legacy("prefix", plugin.getSettings().prefix());
+    }
+
+    /**
+     * Get the color of a configured color code such as "&a".
+     *
+     * @param code The color code(s)
+     * @return The last color in the code, or null if it has none
+     */
+    public static TextColor color(String code) {
+        TextColor color = null;
+        for (int i = 0; i < code.length() - 1; i++) {
+            char c = code.charAt(i);
+            if (c == '&' || c == ChatColor.COLOR_CHAR) {
+                LegacyFormat format = LegacyComponentSerializer.parseChar(code.charAt(i + 1));
+                if (format != null && format.color() != null) {
+                    color = format.color();
+                }
+            }
+        }
+        return color;
+    }
+
+    /**
+     * Drop every cached component (called on config reload).
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private Entry entry(String key, String template) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.template().equals(template)) {
+            String legacy = ChatColor.translateAlternateColorCodes('&', template);
+            entry = new Entry(template, parse(legacy), legacy);
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Parse a legacy string without caching, for text that is already known
+     * to have changed (such as freshly composed name tags).
+     *
+     * @param template Text using '&' and/or '§' codes
+     * @return The component
+     */
+    public static Component parse(String template) {
+        return SECTION.deserialize(ChatColor.translateAlternateColorCodes('&', template));
+    }
+}
@@ -0,0 +1,57 @@
+package dev.og69.ogessentials.text;
+
+/**
+ * Keys of the templates in messages.yml and the placeholders each accepts.
+ *
+ * Arguments passed when formatting are matched to placeholders by
+ * position, in the order listed here.
+ */
+public enum Message {
+
+    AFK_NOW("afk.now-afk", "player"),
+    AFK_RETURNED("afk.no-longer-afk", "player"),
+
+    SLEEP_STATUS("sleep.status", "sleeping", "active", "needed"),
+    SLEEP_STATUS_ACCELERATE("sleep.status-accelerate", "sleeping", "active"),
+    SLEEP_LEFT_BED("sleep.left-bed", "player", "sleeping", "active", "needed"),
+    SLEEP_SKIPPING("sleep.skipping"),
+
+    TPA_EXPIRED_REQUESTER("tpa.expired-requester", "target"),
+    TPA_EXPIRED_TARGET("tpa.expired-target", "requester"),
+
+    COMMAND_BLOCKED("command-blocker.blocked", "command"),
+
+    SPAM_RATE_LIMITED("anti-spam.slow-down"),
+    SPAM_DUPLICATE("anti-spam.duplicate"),
+    SPAM_MUTED("anti-spam.muted", "seconds");
+
+    private final String path;
+    private final String[] placeholders;
+
+    Message(String path, String... placeholders) {
+        this.path = path;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * Get the path of this message inside a locale section.
+     */
+    public String path() {
+        return path;
+    }
+
+    /**
+     * Get the argument position of a placeholder.
+     *
+     * @param name The placeholder name, without braces
+     * @return The position, or -1 if this message has no such placeholder
+     */
+    int placeholderIndex(String name) {
+        for (int i = 0; i < placeholders.length; i++) {
+            if (placeholders[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
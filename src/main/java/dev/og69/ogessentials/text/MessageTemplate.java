@@ -0,0 +1,156 @@
+package dev.og69.ogessentials.text;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.legacy.LegacyFormat;
+import org.bukkit.ChatColor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message template compiled into literal components and argument slots.
+ *
+ * Compiling walks the template once: '&' / '§' codes update the running
+ * style, "{color}" switches to the configured message color, known
+ * placeholders become slots carrying the style in effect at that point,
+ * and everything else becomes styled literal text. Formatting then only
+ * copies the parts array and fills the slots, with no parsing or regex.
+ *
+ * Immutable and safe to share between threads.
+ */
+final class MessageTemplate {
+
+    private static final String COLOR_PLACEHOLDER = "color";
+
+    // Literal parts, with null where a slot goes
+    private final Component[] parts;
+
+    // Per slot: position in parts, argument index and style
+    private final int[] slotPositions;
+    private final int[] slotArgs;
+    private final Style[] slotStyles;
+
+    // Precomputed result for templates without slots
+    private final Component constant;
+
+    private MessageTemplate(Component[] parts, int[] slotPositions, int[] slotArgs, Style[] slotStyles) {
+        this.parts = parts;
+        this.slotPositions = slotPositions;
+        this.slotArgs = slotArgs;
+        this.slotStyles = slotStyles;
+        this.constant = slotPositions.length == 0 ? Component.textOfChildren(parts) : null;
+    }
+
+    /**
+     * Compile a template.
+     *
+     * @param message The message the template belongs to (defines the placeholders)
+     * @param template The template text
+     * @param color The color used for "{color}"
+     * @return The compiled template
+     */
+    static MessageTemplate compile(Message message, String template, TextColor color) {
+        List<Component> parts = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        List<Integer> args = new ArrayList<>();
+        List<Style> styles = new ArrayList<>();
+
+        Style style = Style.empty();
+        StringBuilder run = new StringBuilder();
+        int length = template.length();
+        for (int i = 0; i < length; i++) {
+            char c = template.charAt(i);
+
+            if ((c == '&' || c == ChatColor.COLOR_CHAR) && i + 1 < length) {
+                LegacyFormat format = LegacyComponentSerializer.parseChar(template.charAt(i + 1));
+                if (format != null) {
+                    flush(run, style, parts);
+                    style = apply(style, format);
+                    i++;
+                    continue;
+                }
+            }
+
+            if (c == '{') {
+                int end = template.indexOf('}', i + 1);
+                if (end > i) {
+                    String name = template.substring(i + 1, end);
+                    if (name.equals(COLOR_PLACEHOLDER)) {
+                        flush(run, style, parts);
+                        style = color == null ? Style.empty() : Style.style(color);
+                        i = end;
+                        continue;
+                    }
+                    int arg = message.placeholderIndex(name);
+                    if (arg >= 0) {
+                        flush(run, style, parts);
+                        positions.add(parts.size());
+                        args.add(arg);
+                        styles.add(style);
+                        parts.add(null);
+                        i = end;
+                        continue;
+                    }
+                }
+            }
+
+            run.append(c);
+        }
+        flush(run, style, parts);
+
+        int slots = positions.size();
+        int[] slotPositions = new int[slots];
+        int[] slotArgs = new int[slots];
+        for (int i = 0; i < slots; i++) {
+            slotPositions[i] = positions.get(i);
+            slotArgs[i] = args.get(i);
+        }
+        return new MessageTemplate(parts.toArray(new Component[0]), slotPositions, slotArgs,
+            styles.toArray(new Style[0]));
+    }
+
+    /**
+     * Fill the slots with arguments.
+     *
+     * @param args Arguments in the message's placeholder order (missing ones are empty)
+     * @return The formatted message
+     */
+    Component format(String... args) {
+        if (constant != null) {
+            return constant;
+        }
+        Component[] children = parts.clone();
+        for (int i = 0; i < slotPositions.length; i++) {
+            int arg = slotArgs[i];
+            children[slotPositions[i]] = Component.text(arg < args.length ? args[arg] : "", slotStyles[i]);
+        }
+        return Component.textOfChildren(children);
+    }
+
+    private static void flush(StringBuilder run, Style style, List<Component> parts) {
+        if (run.length() > 0) {
+            parts.add(Component.text(run.toString(), style));
+            run.setLength(0);
+        }
+    }
+
+    /**
+     * Apply a legacy code the way the client does: a color clears
+     * decorations, a reset clears everything.
+     */
+    private static Style apply(Style style, LegacyFormat format) {
+        if (format.reset()) {
+            return Style.empty();
+        }
+        if (format.color() != null) {
+            return Style.style(format.color());
+        }
+        if (format.decoration() != null) {
+            return style.decorate(format.decoration());
+        }
+        return style;
+    }
+}
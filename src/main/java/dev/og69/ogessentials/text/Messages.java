@@ -0,0 +1,192 @@
+package dev.og69.ogessentials.text;
+
+import dev.og69.ogessentials.OGEssentials;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Message templates from messages.yml, resolved per client locale.
+ *
+ * messages.yml has one section per locale (en_us, de_de, ...). A client
+ * locale uses its own section, then its language section (de), then the
+ * default locale, then the bundled defaults. Each locale's templates are
+ * compiled once into a table indexed by Message ordinal, and templates are
+ * shared between locales that resolve to the same section, so lookups are
+ * a single map read and an array index.
+ *
+ * Broadcasts format a message once per distinct template, not once per
+ * recipient. The whole catalog is replaced on reload.
+ */
+public class Messages {
+
+    private static final String FILE_NAME = "messages.yml";
+
+    /**
+     * Loaded templates and compiled tables, replaced as a whole on reload.
+     */
+    private record Catalog(YamlConfiguration yaml, String defaultLocale, TextColor color,
+                           Map<String, MessageTemplate> compiled, Map<Locale, MessageTemplate[]> tables) {}
+
+    private final OGEssentials plugin;
+    private volatile Catalog catalog;
+
+    /**
+     * Create the message catalog and load messages.yml.
+     *
+     * @param plugin The plugin instance
+     */
+    public Messages(OGEssentials plugin) {
+        this.plugin = plugin;
+        reload();
+    }
+
+    /**
+     * Reload messages.yml and drop every compiled template.
+     */
+    public void reload() {
+        File file = new File(plugin.getDataFolder(), FILE_NAME);
+        if (!file.exists()) {
+            plugin.saveResource(FILE_NAME, false);
+        }
+
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        InputStream bundled = plugin.getResource(FILE_NAME);
+        if (bundled != null) {
+            yaml.setDefaults(YamlConfiguration.loadConfiguration(
+                new InputStreamReader(bundled, StandardCharsets.UTF_8)));
+        }
+
+        String defaultLocale = yaml.getString("default-locale", "en_us").toLowerCase(Locale.ROOT);
+        catalog = new Catalog(yaml, defaultLocale, plugin.getSettings().afkMessageColor(),
+            new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Format a message for a locale, without the prefix.
+     *
+     * @param locale The client locale (Locale.ROOT for the default locale)
+     * @param message The message
+     * @param args Placeholder values in the message's order
+     * @return The formatted message
+     */
+    public Component format(Locale locale, Message message, String... args) {
+        return template(catalog, locale, message).format(args);
+    }
+
+    /**
+     * Send a prefixed message to a player in their locale.
+     *
+     * @param player The recipient
+     * @param message The message
+     * @param args Placeholder values in the message's order
+     */
+    public void send(Player player, Message message, String... args) {
+        player.sendMessage(prefixed(template(catalog, player.locale(), message).format(args)));
+    }
+
+    /**
+     * Send a prefixed message to every online player in their own locale,
+     * and to the console in the default locale.
+     *
+     * @param message The message
+     * @param args Placeholder values in the message's order
+     */
+    public void broadcast(Message message, String... args) {
+        broadcast(Bukkit.getOnlinePlayers(), message, args);
+        Bukkit.getConsoleSender().sendMessage(prefixed(format(Locale.ROOT, message, args)));
+    }
+
+    /**
+     * Send a prefixed message to every recipient in their own locale.
+     *
+     * @param recipients The players to send to
+     * @param message The message
+     * @param args Placeholder values in the message's order
+     */
+    public void broadcast(Collection<? extends Player> recipients, Message message, String... args) {
+        Catalog current = catalog;
+
+        // Most servers have one or two locales: remember the last template
+        // and only fall back to a map when a different one shows up
+        MessageTemplate lastTemplate = null;
+        Component lastMessage = null;
+        Map<MessageTemplate, Component> rendered = null;
+
+        for (Player player : recipients) {
+            MessageTemplate template = template(current, player.locale(), message);
+            if (template != lastTemplate) {
+                Component cached = null;
+                if (lastTemplate != null) {
+                    if (rendered == null) {
+                        rendered = new HashMap<>();
+                    }
+                    rendered.put(lastTemplate, lastMessage);
+                    cached = rendered.get(template);
+                }
+                lastMessage = cached != null ? cached : prefixed(template.format(args));
+                lastTemplate = template;
+            }
+            player.sendMessage(lastMessage);
+        }
+    }
+
+    private Component prefixed(Component message) {
+        return Component.textOfChildren(plugin.getComponentCache().prefix(), message);
+    }
+
+    private MessageTemplate template(Catalog current, Locale locale, Message message) {
+        MessageTemplate[] table = current.tables().get(locale);
+        if (table == null) {
+            table = current.tables().computeIfAbsent(locale, l -> buildTable(current, l));
+        }
+        return table[message.ordinal()];
+    }
+
+    /**
+     * Resolve every message for one locale.
+     */
+    private MessageTemplate[] buildTable(Catalog current, Locale locale) {
+        String[] sections = {
+            locale.toString().toLowerCase(Locale.ROOT),
+            locale.getLanguage().toLowerCase(Locale.ROOT),
+            current.defaultLocale(),
+            "en_us"
+        };
+
+        Message[] messages = Message.values();
+        MessageTemplate[] table = new MessageTemplate[messages.length];
+        for (Message message : messages) {
+            String path = null;
+            for (String section : sections) {
+                if (!section.isEmpty() && current.yaml().isString(section + "." + message.path())) {
+                    path = section + "." + message.path();
+                    break;
+                }
+            }
+
+            if (path == null) {
+                // Missing everywhere: show the key so it is easy to spot
+                table[message.ordinal()] = current.compiled().computeIfAbsent("missing." + message.path(),
+                    k -> MessageTemplate.compile(message, message.path(), current.color()));
+            } else {
+                String resolved = path;
+                table[message.ordinal()] = current.compiled().computeIfAbsent(resolved,
+                    k -> MessageTemplate.compile(message, current.yaml().getString(resolved), current.color()));
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,199 @@
+package dev.og69.ogessentials.text;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Aho-Corasick automaton over player names, for finding mentions in chat.
+ *
+ * Names are matched case-insensitively over the Minecraft name alphabet
+ * (letters, digits and '_'); any other character resets the automaton.
+ * Failure links are folded into a dense transition table, so scanning a
+ * message is one table lookup per character no matter how many names
+ * there are. Only whole-word matches count: "Bob" is not found in "Bobby".
+ * Matches are reported with their offsets, so callers can highlight them
+ * without searching the message again.
+ *
+ * Immutable and safe to share between threads.
+ */
+public final class NameAutomaton {
+
+    private static final int ALPHABET = 37;
+    private static final int[] NO_MATCHES = new int[0];
+
+    /**
+     * An automaton with no names.
+     */
+    public static final NameAutomaton EMPTY = build(new String[0], new UUID[0]);
+
+    // Transition table: next[state * ALPHABET + symbol]
+    private final int[] next;
+
+    // Per state: name ending here (or -1) and the next state on the
+    // failure chain that also ends a name (or -1)
+    private final int[] output;
+    private final int[] outputLink;
+
+    private final String[] names;
+    private final UUID[] playerIds;
+
+    private NameAutomaton(int[] next, int[] output, int[] outputLink, String[] names, UUID[] playerIds) {
+        this.next = next;
+        this.output = output;
+        this.outputLink = outputLink;
+        this.names = names;
+        this.playerIds = playerIds;
+    }
+
+    /**
+     * Build an automaton.
+     *
+     * @param names Player names
+     * @param playerIds The UUID for each name
+     * @return The automaton
+     */
+    public static NameAutomaton build(String[] names, UUID[] playerIds) {
+        int maxStates = 1;
+        for (String name : names) {
+            maxStates += name.length();
+        }
+
+        int[] next = new int[maxStates * ALPHABET];
+        Arrays.fill(next, -1);
+        int[] output = new int[maxStates];
+        Arrays.fill(output, -1);
+        int states = 1;
+
+        // Trie
+        for (int i = 0; i < names.length; i++) {
+            int state = 0;
+            boolean valid = !names[i].isEmpty();
+            for (int c = 0; c < names[i].length() && valid; c++) {
+                int symbol = symbol(names[i].charAt(c));
+                if (symbol < 0) {
+                    valid = false;
+                    break;
+                }
+                int index = state * ALPHABET + symbol;
+                if (next[index] < 0) {
+                    next[index] = states++;
+                }
+                state = next[index];
+            }
+            if (valid) {
+                output[state] = i;
+            }
+        }
+
+        // Failure links, breadth first, folded into the transition table
+        int[] fail = new int[states];
+        int[] outputLink = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        outputLink[0] = -1;
+        for (int symbol = 0; symbol < ALPHABET; symbol++) {
+            int child = next[symbol];
+            if (child < 0) {
+                next[symbol] = 0;
+            } else {
+                fail[child] = 0;
+                outputLink[child] = -1;
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int symbol = 0; symbol < ALPHABET; symbol++) {
+                int index = state * ALPHABET + symbol;
+                int child = next[index];
+                int fallback = next[fail[state] * ALPHABET + symbol];
+                if (child < 0) {
+                    next[index] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    outputLink[child] = output[fallback] >= 0 ? fallback : outputLink[fallback];
+                    queue[tail++] = child;
+                }
+            }
+        }
+
+        return new NameAutomaton(Arrays.copyOf(next, states * ALPHABET), Arrays.copyOf(output, states),
+            outputLink, names.clone(), playerIds.clone());
+    }
+
+    /**
+     * Find the names mentioned in a message, in one pass.
+     *
+     * Whole-word matches of distinct names never overlap, so the matches
+     * come out in message order.
+     *
+     * @param text The plain message text
+     * @return Start offset, end offset (exclusive) and name index of every
+     *         match, three entries per match (empty if none)
+     */
+    public int[] findMentions(String text) {
+        if (names.length == 0) {
+            return NO_MATCHES;
+        }
+
+        int[] found = NO_MATCHES;
+        int count = 0;
+        int state = 0;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            int symbol = symbol(text.charAt(i));
+            if (symbol < 0) {
+                state = 0;
+                continue;
+            }
+            state = next[state * ALPHABET + symbol];
+
+            // Only names ending at a word boundary can be whole words
+            if (i + 1 < length && symbol(text.charAt(i + 1)) >= 0) {
+                continue;
+            }
+            for (int s = output[state] >= 0 ? state : outputLink[state]; s >= 0; s = outputLink[s]) {
+                int name = output[s];
+                int start = i + 1 - names[name].length();
+                if (start > 0 && symbol(text.charAt(start - 1)) >= 0) {
+                    continue;
+                }
+                if (count + 3 > found.length) {
+                    found = Arrays.copyOf(found, Math.max(12, found.length * 2));
+                }
+                found[count++] = start;
+                found[count++] = i + 1;
+                found[count++] = name;
+            }
+        }
+        return count == found.length ? found : Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Get the name at an index.
+     */
+    public String name(int index) {
+        return names[index];
+    }
+
+    /**
+     * Get the player UUID at an index.
+     */
+    public UUID playerId(int index) {
+        return playerIds[index];
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= '0' && c <= '9') {
+            return 26 + (c - '0');
+        }
+        return c == '_' ? 36 : -1;
+    }
+}
@@ -0,0 +1,44 @@
+package dev.og69.ogessentials.managers;
+
+import org.bukkit.permissions.Permissible;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandBlockerTest {
+
+    private static final String NODE = CommandBlocker.BYPASS_PERMISSION + ".plugins";
+
+    /**
+     * A permissible that behaves like Bukkit for undeclared nodes: explicit
+     * values win, anything else defaults to true for ops.
+     */
+    private static Permissible permissible(boolean op, Map<String, Boolean> explicit) {
+        return (Permissible) Proxy.newProxyInstance(Permissible.class.getClassLoader(),
+            new Class<?>[] {Permissible.class}, (proxy, method, args) -> switch (method.getName()) {
+                case "isOp" -> op;
+                case "isPermissionSet" -> explicit.containsKey((String) args[0]);
+                case "hasPermission" -> explicit.getOrDefault((String) args[0], op);
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    @Test
+    void opWithoutExplicitGrantIsStillBlocked() {
+        assertFalse(CommandBlocker.hasCommandBypass(permissible(true, Map.of()), NODE));
+    }
+
+    @Test
+    void explicitGrantBypasses() {
+        assertTrue(CommandBlocker.hasCommandBypass(permissible(false, Map.of(NODE, true)), NODE));
+    }
+
+    @Test
+    void explicitDenialBlocksOps() {
+        assertFalse(CommandBlocker.hasCommandBypass(permissible(true, Map.of(NODE, false)), NODE));
+    }
+}
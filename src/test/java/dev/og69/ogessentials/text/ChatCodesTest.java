@@ -0,0 +1,35 @@
+package dev.og69.ogessentials.text;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChatCodesTest {
+
+    private static String plain(Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    @Test
+    void disallowedHexColorStaysAsText() {
+        Component message = ChatCodes.deserialize("&cred &#ff8800orange", ChatCodes.COLORS);
+        assertEquals("red &#ff8800orange", plain(message));
+        assertEquals(NamedTextColor.RED, message.children().get(0).color());
+    }
+
+    @Test
+    void allowedHexColorIsApplied() {
+        Component message = ChatCodes.deserialize("&#ff8800orange", ChatCodes.HEX);
+        assertEquals("orange", plain(message));
+        assertEquals(TextColor.color(0xff8800), message.children().get(0).color());
+    }
+
+    @Test
+    void disallowedFormatCodeStaysAsText() {
+        assertEquals("&lbold", plain(ChatCodes.deserialize("&lbold", ChatCodes.COLORS)));
+    }
+}
@@ -0,0 +1,24 @@
+package dev.og69.ogessentials.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class NameAutomatonTest {
+
+    private static final NameAutomaton AUTOMATON = NameAutomaton.build(
+        new String[] {"Bob", "Alice_2"}, new UUID[] {UUID.randomUUID(), UUID.randomUUID()});
+
+    @Test
+    void reportsOffsetsOfEveryMatchInOrder() {
+        assertArrayEquals(new int[] {3, 6, 0, 12, 19, 1, 21, 24, 0},
+            AUTOMATON.findMentions("hi bob, and alice_2 (BOB)"));
+    }
+
+    @Test
+    void ignoresPartialWords() {
+        assertArrayEquals(new int[0], AUTOMATON.findMentions("bobby xbob alice_23"));
+    }
+}